@@ -0,0 +1,45 @@
+#!/bin/sh
+# Mede o tempo de cold start (docker run -> readiness UP -> primeira resposta)
+# de uma imagem e acrescenta o resultado em bench/cold-start.csv (local, não
+# versionado). Para comparar baseline, AOT e AOT+CDS, construa uma imagem de
+# cada variante e rode o script contra cada uma.
+#
+# Uso: scripts/cold-start-benchmark.sh [imagem] [execuções]
+#   imagem     tag da imagem Docker (padrão: equilibrium-mcp-youtube)
+#   execuções  número de cold starts medidos (padrão: 5)
+
+set -eu
+
+IMAGE="${1:-equilibrium-mcp-youtube}"
+RUNS="${2:-5}"
+PORT=18084
+CSV="bench/cold-start.csv"
+
+now_ms() {
+    date +%s%3N
+}
+
+mkdir -p bench
+[ -f "$CSV" ] || echo "timestamp,git_commit,image,run,ready_ms,first_response_ms" > "$CSV"
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+
+i=1
+while [ "$i" -le "$RUNS" ]; do
+    START=$(now_ms)
+    CID=$(docker run -d --rm -p "$PORT:8080" -e PORT=8080 "$IMAGE")
+
+    until curl -fs "http://localhost:$PORT/actuator/health/readiness" > /dev/null 2>&1; do
+        sleep 0.05
+    done
+    READY=$(now_ms)
+
+    # Primeira resposta do servidor MCP: abertura do stream SSE (evento endpoint)
+    curl -fsN --max-time 5 "http://localhost:$PORT/sse" | head -n 2 > /dev/null 2>&1 || true
+    FIRST=$(now_ms)
+
+    docker stop "$CID" > /dev/null
+
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$COMMIT,$IMAGE,$i,$((READY - START)),$((FIRST - START))" >> "$CSV"
+    echo "run $i: ready=$((READY - START))ms first_response=$((FIRST - START))ms"
+    i=$((i + 1))
+done
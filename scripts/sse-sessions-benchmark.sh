@@ -0,0 +1,63 @@
+#!/bin/sh
+# Compara sessões MCP SSE simultâneas e vazão de tool calls por instância,
+# entre virtual threads e o modelo thread-per-request do Tomcat.
+#
+# Uso: scripts/sse-sessions-benchmark.sh [url-base] [sessões] [paralelismo]
+#   url-base     padrão: http://localhost:8084
+#   sessões      conexões SSE abertas ao mesmo tempo (padrão: 500)
+#   paralelismo  tool calls simultâneas (padrão: 100)
+#
+# Rode duas vezes, uma contra cada modo, e compare as linhas gravadas em
+# bench/sse-sessions.csv. Com AOT o modo é fixado no build (uma imagem por modo,
+# --build-arg VIRTUAL_THREADS); sem AOT, pela variável VIRTUAL_THREADS_ENABLED
+# da aplicação. Aqui VIRTUAL_THREADS_ENABLED só rotula a linha do CSV.
+
+set -eu
+
+BASE="${1:-http://localhost:8084}"
+SESSIONS="${2:-500}"
+PARALLEL="${3:-100}"
+CSV="bench/sse-sessions.csv"
+WORK=$(mktemp -d)
+trap 'kill $(jobs -p) 2>/dev/null || true; rm -rf "$WORK"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+mkdir -p bench
+[ -f "$CSV" ] || echo "timestamp,git_commit,mode,sessions_requested,sessions_open,tool_calls,parallelism,elapsed_ms,calls_per_s" > "$CSV"
+MODE="${VIRTUAL_THREADS_ENABLED:-unknown}"
+
+# 1. Abrir sessões SSE e manter abertas
+i=1
+while [ "$i" -le "$SESSIONS" ]; do
+    curl -sN "$BASE/sse" > "$WORK/sse-$i.log" 2>/dev/null &
+    i=$((i + 1))
+done
+sleep 5
+
+# Sessões abertas = streams que receberam o evento "endpoint"
+grep -h '^data:' "$WORK"/sse-*.log | grep 'sessionId' | sed 's/^data://' > "$WORK/endpoints.txt" || true
+OPEN=$(wc -l < "$WORK/endpoints.txt" | tr -d ' ')
+echo "sessões SSE abertas: $OPEN / $SESSIONS"
+
+# 2. initialize + tools/call em cada sessão, com paralelismo limitado
+cat > "$WORK/call.sh" <<'CALL'
+#!/bin/sh
+BASE="$1"; ENDPOINT="$2"
+URL="$BASE$ENDPOINT"
+curl -s -o /dev/null -H 'Content-Type: application/json' -d '{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"bench","version":"1"}}}' "$URL"
+curl -s -o /dev/null -H 'Content-Type: application/json' -d '{"jsonrpc":"2.0","method":"notifications/initialized"}' "$URL"
+curl -s -o /dev/null -H 'Content-Type: application/json' -d '{"jsonrpc":"2.0","id":2,"method":"tools/call","params":{"name":"recommendYouTubeVideos","arguments":{"prompt":"idade: 30, stress: 8, energia: 3, sono: 5, meditação"}}}' "$URL"
+CALL
+chmod +x "$WORK/call.sh"
+
+START=$(now_ms)
+xargs -P "$PARALLEL" -I{} "$WORK/call.sh" "$BASE" {} < "$WORK/endpoints.txt"
+ELAPSED=$(( $(now_ms) - START ))
+RATE=$(awk "BEGIN { printf \"%.1f\", ($OPEN * 1000) / ($ELAPSED > 0 ? $ELAPSED : 1) }")
+
+COMMIT=$(git rev-parse --short HEAD 2>/dev/null || echo unknown)
+echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$COMMIT,virtual=$MODE,$SESSIONS,$OPEN,$OPEN,$PARALLEL,$ELAPSED,$RATE" >> "$CSV"
+echo "tool calls: $OPEN em ${ELAPSED}ms ($RATE/s)"
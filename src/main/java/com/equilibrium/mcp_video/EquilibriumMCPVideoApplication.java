@@ -1,15 +1,43 @@
 package com.equilibrium.mcp_video;
 
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncResourceSpecification;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.WebMvcSseServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.util.DeafaultMcpUriTemplateManagerFactory;
+import io.modelcontextprotocol.util.McpUriTemplateManager;
+import io.modelcontextprotocol.util.McpUriTemplateManagerFactory;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.mcp.server.autoconfigure.McpServerAutoConfiguration;
+import org.springframework.ai.mcp.server.autoconfigure.McpServerProperties;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.equilibrium.mcp_video.controller.YouTubeMCPToolController;
+import com.equilibrium.mcp_video.service.CatalogResourceIndex;
 
-@SpringBootApplication
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * O McpSyncServer é montado aqui, e não pela auto-configuração do Spring AI,
+ * porque ela não expõe resource templates nem o casamento de URIs do SDK:
+ * sem isso, os buckets do catálogo só podiam ser registrados como resources
+ * com "{...}" na URI, que aparecem em resources/list como se fossem lidos.
+ * O transporte SSE (WebMvcSseServerTransportProvider) continua vindo da
+ * auto-configuração WebMvc, com as mesmas propriedades spring.ai.mcp.server.
+ */
+@SpringBootApplication(exclude = McpServerAutoConfiguration.class)
+@EnableConfigurationProperties(McpServerProperties.class)
+@EnableScheduling
 public class EquilibriumMCPVideoApplication {
 
     public static void main(String[] args) {
@@ -21,4 +49,112 @@ public class EquilibriumMCPVideoApplication {
     public ToolCallbackProvider tools(@Lazy YouTubeMCPToolController youTubeMCPToolController) {
         return MethodToolCallbackProvider.builder().toolObjects(youTubeMCPToolController).build();
     }
+
+    @Bean
+    public McpSyncServer mcpSyncServer(WebMvcSseServerTransportProvider transportProvider,
+                                       McpServerProperties properties,
+                                       ToolCallbackProvider tools,
+                                       CatalogResourceIndex catalogResourceIndex) {
+        McpServerProperties.Capabilities enabled = properties.getCapabilities();
+        McpSchema.ServerCapabilities.Builder capabilities = McpSchema.ServerCapabilities.builder();
+        McpServer.SyncSpecification server = McpServer.sync(transportProvider)
+            .serverInfo(new McpSchema.Implementation(properties.getName(), properties.getVersion()))
+            .instructions(properties.getInstructions())
+            .requestTimeout(properties.getRequestTimeout());
+
+        if (enabled.isTool()) {
+            capabilities.tools(properties.isToolChangeNotification());
+            server.tools(McpToolUtils.toSyncToolSpecification(List.of(tools.getToolCallbacks())));
+        }
+        if (enabled.isResource()) {
+            capabilities.resources(false, properties.isResourceChangeNotification());
+            server.resources(catalogResources(catalogResourceIndex))
+                .resourceTemplates(catalogResourceTemplates(catalogResourceIndex))
+                .uriTemplateManagerFactory(catalogUriTemplateManagerFactory(catalogResourceIndex));
+        }
+        if (enabled.isPrompt()) {
+            capabilities.prompts(properties.isPromptChangeNotification());
+        }
+        if (enabled.isCompletion()) {
+            capabilities.completions();
+        }
+        return server.capabilities(capabilities.build()).build();
+    }
+
+    /**
+     * Catálogo de canais curados como MCP resources (navegação sem custo de quota)
+     *
+     * Só URIs concretas: a raiz e a primeira página de cada bucket. As páginas
+     * seguintes são descritas pelos templates e lidas pelo resource do bucket.
+     * Os buckets saem das categorias das regras na subida; uma categoria
+     * adicionada por reload entra no diretório do índice na hora, mas só vira
+     * resource legível depois de reiniciar o servidor.
+     */
+    private static List<SyncResourceSpecification> catalogResources(CatalogResourceIndex index) {
+        List<SyncResourceSpecification> resources = new ArrayList<>();
+        resources.add(catalogResource(index, CatalogResourceIndex.URI_PREFIX, "catalog",
+            "Buckets do catálogo (categoria x duração) com total de vídeos de cada um"));
+        for (String uri : index.bucketUris()) {
+            String bucket = uri.substring(CatalogResourceIndex.URI_PREFIX.length() + 1);
+            resources.add(catalogResource(index, uri, "catalog-" + bucket.replace('/', '-'),
+                "Primeira página do bucket " + bucket + " do catálogo"));
+        }
+        return resources;
+    }
+
+    private static List<McpSchema.ResourceTemplate> catalogResourceTemplates(CatalogResourceIndex index) {
+        return List.of(
+            new McpSchema.ResourceTemplate(CatalogResourceIndex.PAGE_TEMPLATE, "catalog-page",
+                "Primeira página de vídeos do catálogo (canais curados). category: " + index.categories()
+                    + ", duration: " + CatalogResourceIndex.DURATIONS,
+                "application/json", null),
+            new McpSchema.ResourceTemplate(CatalogResourceIndex.NEXT_PAGE_TEMPLATE, "catalog-next-page",
+                "Página seguinte do catálogo, usando o nextCursor da página anterior",
+                "application/json", null)
+        );
+    }
+
+    /**
+     * O resource de cada bucket também responde pelas páginas seguintes (bucket + "/" + cursor)
+     */
+    private static McpUriTemplateManagerFactory catalogUriTemplateManagerFactory(CatalogResourceIndex index) {
+        McpUriTemplateManagerFactory defaults = new DeafaultMcpUriTemplateManagerFactory();
+        List<String> buckets = index.bucketUris();
+        return uri -> {
+            McpUriTemplateManager manager = defaults.create(uri);
+            if (!buckets.contains(uri)) {
+                return manager;
+            }
+            return new McpUriTemplateManager() {
+                @Override
+                public List<String> getVariableNames() {
+                    return manager.getVariableNames();
+                }
+
+                @Override
+                public Map<String, String> extractVariableValues(String requestUri) {
+                    return manager.extractVariableValues(requestUri);
+                }
+
+                @Override
+                public boolean matches(String requestUri) {
+                    return CatalogResourceIndex.isPageOf(uri, requestUri);
+                }
+
+                @Override
+                public boolean isUriTemplate(String candidate) {
+                    return manager.isUriTemplate(candidate);
+                }
+            };
+        };
+    }
+
+    private static SyncResourceSpecification catalogResource(CatalogResourceIndex index, String uri,
+                                                             String name, String description) {
+        return new SyncResourceSpecification(
+            new McpSchema.Resource(uri, name, description, "application/json", null),
+            (exchange, request) -> new McpSchema.ReadResourceResult(List.of(
+                new McpSchema.TextResourceContents(request.uri(), "application/json", index.read(request.uri()))))
+        );
+    }
 }
@@ -0,0 +1,145 @@
+package com.equilibrium.mcp_video.client;
+
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpResponseException;
+import com.google.api.client.http.HttpStatusCodes;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.youtube.YouTube;
+import com.google.api.services.youtube.model.Channel;
+import com.google.api.services.youtube.model.ChannelListResponse;
+import com.google.api.services.youtube.model.PlaylistItem;
+import com.google.api.services.youtube.model.PlaylistItemContentDetails;
+import com.google.api.services.youtube.model.PlaylistItemListResponse;
+import com.google.api.services.youtube.model.SearchListResponse;
+import com.google.api.services.youtube.model.SearchResult;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoListResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cliente da YouTube Data API v3 usando a biblioteca oficial do Google
+ */
+@Slf4j
+@Component
+public class GoogleYouTubeClient implements YouTubeClient {
+
+    @Value("${youtube.api.key:}")
+    private String apiKey;
+
+    private YouTube youtube;
+
+    /**
+     * Inicializa o cliente do YouTube na subida da aplicação
+     * (evita inicialização preguiçosa no primeiro request)
+     */
+    @PostConstruct
+    void init() {
+        try {
+            youtube = new YouTube.Builder(
+                GoogleNetHttpTransport.newTrustedTransport(),
+                GsonFactory.getDefaultInstance(),
+                null
+            )
+            .setApplicationName("Equilibrium-YouTube-MCP")
+            .build();
+        } catch (Exception e) {
+            log.error("Erro ao inicializar YouTube Service", e);
+            throw new IllegalStateException("Erro ao inicializar YouTube Service", e);
+        }
+    }
+
+    @Override
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.trim().isEmpty();
+    }
+
+    @Override
+    public List<String> searchVideoIds(String query, long maxResults, String videoDuration, String relevanceLanguage)
+            throws IOException {
+        YouTube.Search.List search = youtube.search().list(Collections.singletonList("id,snippet"));
+        search.setKey(apiKey);
+        search.setQ(query);
+        search.setType(Collections.singletonList("video"));
+        search.setMaxResults(maxResults);
+        search.setOrder("relevance");
+        search.setVideoDuration(videoDuration);
+        search.setRelevanceLanguage(relevanceLanguage);
+        search.setSafeSearch("moderate");
+        search.setVideoDefinition("any"); // HD ou SD
+        search.setVideoEmbeddable("true"); // Apenas vídeos que podem ser embedados
+
+        SearchListResponse searchResponse = search.execute();
+        List<SearchResult> searchResults = searchResponse.getItems();
+        if (searchResults == null) {
+            return new ArrayList<>();
+        }
+        return searchResults.stream()
+            .map(sr -> sr.getId().getVideoId())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Video> getVideos(List<String> videoIds) throws IOException {
+        if (videoIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        YouTube.Videos.List videosList = youtube.videos()
+            .list(Collections.singletonList("snippet,contentDetails,statistics"));
+        videosList.setKey(apiKey);
+        videosList.setId(Collections.singletonList(String.join(",", videoIds)));
+
+        VideoListResponse videosResponse = videosList.execute();
+        return videosResponse.getItems() != null ? videosResponse.getItems() : new ArrayList<>();
+    }
+
+    @Override
+    public String getUploadsPlaylistId(String channelId) throws IOException {
+        YouTube.Channels.List channels = youtube.channels().list(Collections.singletonList("contentDetails"));
+        channels.setKey(apiKey);
+        channels.setId(Collections.singletonList(channelId));
+
+        ChannelListResponse response = channels.execute();
+        if (response.getItems() == null || response.getItems().isEmpty()) {
+            return null;
+        }
+        Channel channel = response.getItems().get(0);
+        return channel.getContentDetails().getRelatedPlaylists().getUploads();
+    }
+
+    @Override
+    public PlaylistPage getPlaylistItems(String playlistId, String pageToken, String etag) throws IOException {
+        YouTube.PlaylistItems.List items = youtube.playlistItems().list(Collections.singletonList("contentDetails"));
+        items.setKey(apiKey);
+        items.setPlaylistId(playlistId);
+        items.setMaxResults(50L);
+        if (pageToken != null) {
+            items.setPageToken(pageToken);
+        }
+        if (etag != null) {
+            items.getRequestHeaders().setIfNoneMatch(etag);
+        }
+
+        try {
+            PlaylistItemListResponse response = items.execute();
+            List<String> videoIds = response.getItems() == null ? new ArrayList<>() : response.getItems().stream()
+                .map(PlaylistItem::getContentDetails)
+                .map(PlaylistItemContentDetails::getVideoId)
+                .collect(Collectors.toList());
+            return new PlaylistPage(videoIds, response.getNextPageToken(), response.getEtag(), false);
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == HttpStatusCodes.STATUS_CODE_NOT_MODIFIED) {
+                return PlaylistPage.NOT_MODIFIED;
+            }
+            throw e;
+        }
+    }
+}
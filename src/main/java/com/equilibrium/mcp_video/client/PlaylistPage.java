@@ -0,0 +1,24 @@
+package com.equilibrium.mcp_video.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página de playlistItems.list (IDs dos vídeos em ordem da playlist)
+ */
+@Getter
+@AllArgsConstructor
+public class PlaylistPage {
+
+    /**
+     * Resposta 304: a página não mudou desde o ETag informado
+     */
+    public static final PlaylistPage NOT_MODIFIED = new PlaylistPage(List.of(), null, null, true);
+
+    private final List<String> videoIds;
+    private final String nextPageToken;
+    private final String etag;
+    private final boolean notModified;
+}
@@ -0,0 +1,67 @@
+package com.equilibrium.mcp_video.client;
+
+import com.google.api.services.youtube.model.Thumbnail;
+import com.google.api.services.youtube.model.ThumbnailDetails;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoContentDetails;
+import com.google.api.services.youtube.model.VideoSnippet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cliente sintético e determinístico, sem rede e sem consumo de quota
+ *
+ * Gera vídeos plausíveis a partir da própria query. Usado no warm-up de
+ * inicialização para exercitar o caminho completo de recomendação (parse
+ * do prompt, regras, ranking, serialização) antes de receber tráfego real.
+ */
+public class SyntheticYouTubeClient implements YouTubeClient {
+
+    private static final String[] DURATIONS = {"PT4M30S", "PT12M", "PT25M", "PT48M", "PT1H30M"};
+
+    @Override
+    public boolean isConfigured() {
+        return true;
+    }
+
+    @Override
+    public List<String> searchVideoIds(String query, long maxResults, String videoDuration, String relevanceLanguage) {
+        List<String> ids = new ArrayList<>();
+        int seed = Math.abs(query.hashCode());
+        for (int i = 0; i < maxResults; i++) {
+            ids.add("syn" + Integer.toString(seed % 100_000, 36) + "x" + i);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Video> getVideos(List<String> videoIds) {
+        List<Video> videos = new ArrayList<>();
+        for (int i = 0; i < videoIds.size(); i++) {
+            String id = videoIds.get(i);
+            VideoSnippet snippet = new VideoSnippet()
+                .setTitle("Meditação guiada relaxamento profundo 4K " + id)
+                .setDescription("Sons da natureza, respiração e música relaxante para bem-estar. " + id)
+                .setChannelTitle("Equilibrium Warmup")
+                .setTags(List.of("meditação", "relaxamento", "natureza"))
+                .setThumbnails(new ThumbnailDetails()
+                    .setHigh(new Thumbnail().setUrl("https://i.ytimg.com/vi/" + id + "/hqdefault.jpg")));
+            videos.add(new Video()
+                .setId(id)
+                .setSnippet(snippet)
+                .setContentDetails(new VideoContentDetails().setDuration(DURATIONS[i % DURATIONS.length])));
+        }
+        return videos;
+    }
+
+    @Override
+    public String getUploadsPlaylistId(String channelId) {
+        return "UU" + channelId;
+    }
+
+    @Override
+    public PlaylistPage getPlaylistItems(String playlistId, String pageToken, String etag) {
+        return new PlaylistPage(searchVideoIds(playlistId, 10, "any", null), null, "synthetic", false);
+    }
+}
@@ -0,0 +1,47 @@
+package com.equilibrium.mcp_video.client;
+
+import com.google.api.services.youtube.model.Video;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Acesso à YouTube Data API v3
+ *
+ * Separado do serviço de recomendação para permitir backends alternativos
+ * (ex.: cliente sintético no warm-up de inicialização).
+ */
+public interface YouTubeClient {
+
+    /**
+     * Indica se o cliente pode fazer chamadas (ex.: API key configurada)
+     */
+    boolean isConfigured();
+
+    /**
+     * search.list: IDs dos vídeos encontrados para a query (100 unidades de quota)
+     *
+     * @param videoDuration filtro any, short, medium ou long
+     */
+    List<String> searchVideoIds(String query, long maxResults, String videoDuration, String relevanceLanguage)
+        throws IOException;
+
+    /**
+     * videos.list: detalhes completos dos vídeos (1 unidade de quota por chamada)
+     */
+    List<Video> getVideos(List<String> videoIds) throws IOException;
+
+    /**
+     * channels.list: ID da playlist de uploads do canal (1 unidade de quota)
+     *
+     * @return null se o canal não existir
+     */
+    String getUploadsPlaylistId(String channelId) throws IOException;
+
+    /**
+     * playlistItems.list: uma página da playlist (1 unidade de quota)
+     *
+     * @param etag ETag da última resposta desta página; se não mudou, retorna {@link PlaylistPage#NOT_MODIFIED}
+     */
+    PlaylistPage getPlaylistItems(String playlistId, String pageToken, String etag) throws IOException;
+}
@@ -4,13 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
 import com.equilibrium.mcp_video.dto.VideoRecommendationResponse;
 import com.equilibrium.mcp_video.dto.UserState;
+import com.equilibrium.mcp_video.logging.RequestLogContext;
+import com.equilibrium.mcp_video.service.EngagementCounters;
+import com.equilibrium.mcp_video.service.RecommendationAdmission;
+import com.equilibrium.mcp_video.service.RecommendationAdmission.Lane;
+import com.equilibrium.mcp_video.service.ResponseWriter;
 import com.equilibrium.mcp_video.service.YouTubeRecommendationService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.List;
 import java.util.Map;
@@ -29,7 +35,42 @@ import java.util.regex.Pattern;
 public class YouTubeMCPToolController {
 
     private final YouTubeRecommendationService youtubeService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecommendationAdmission admission;
+    private final EngagementCounters engagementCounters;
+    private final ResponseWriter responseWriter;
+
+    /**
+     * Fração das chamadas com logs de detalhe (perfil, queries, tempos)
+     */
+    @Value("${youtube.logging.sample-rate:0.01}")
+    private double logSampleRate;
+
+    /**
+     * Tamanho máximo do prompt nos logs de debug
+     */
+    @Value("${youtube.logging.max-prompt-chars:512}")
+    private int maxPromptChars;
+
+    /**
+     * Rótulo como palavra inteira e separador ":" ou "=" obrigatório ("user identity" não é um userId)
+     */
+    private static final Pattern USER_ID_PATTERN = Pattern.compile(
+        "\\b(user[_\\s-]?id|id do usuário|id do usuario|usuário id)\\s*[:=]\\s*([\\w-]{3,64})",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CONTINUATION_TOKEN_PATTERN = Pattern.compile(
+        "(continuation[_\\s-]?token|token de continuação|token de continuacao)[:=\\s]*([\\w-]{16,64})",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern RESPONSE_FORMAT_PATTERN = Pattern.compile(
+        "(formato|format|resposta|response)[:=\\s]*(compact[oa]?|resumid[oa]|full|complet[oa])",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern EVENT_SEPARATOR = Pattern.compile("[\\s,;]+");
+
+    private static final Pattern VIDEO_ID_PATTERN = Pattern.compile("[\\w-]{3,64}");
+
+    private static final Pattern USER_ID_VALUE_PATTERN = Pattern.compile("[\\w-]{3,64}");
 
     /**
      * Tool: recommend_youtube_videos
@@ -43,6 +84,9 @@ public class YouTubeMCPToolController {
             Recomenda vídeos do YouTube baseado no perfil completo do usuário.
             
             O prompt deve conter informações detalhadas do usuário como:
+            - Identificação: userId: <id> (opcional, evita repetir vídeos já recomendados)
+            - continuationToken (opcional): token da resposta anterior; se o perfil mudou pouco,
+              reaproveita os mesmos vídeos candidatos e só refaz o ranking, sem novas buscas
             - Perfil físico: idade, peso, altura, nível de atividade, objetivo de saúde
             - Estado emocional: humor atual, nível de stress (1-10), ansiedade (1-10), energia (1-10)
             - Dados de gamificação: nível atual, streak, XP total
@@ -50,13 +94,30 @@ public class YouTubeMCPToolController {
             - Atividade física: minutos de exercício
             - Sono: horas de sono, qualidade
             - Preferências: categoria (nature/meditation/music/breathing), duração (short/medium/long), idioma
+            - Formato da resposta (opcional): "formato: compacto" devolve descrições curtas, até 3 tags e
+              omite thumbnailUrl/contentUrl (derivados do videoId); "formato: completo" devolve tudo
             
             Retorna vídeos do YouTube categorizados com thumbnails, descrições, razões de recomendação e match scores.
             """)
     public String recommendYouTubeVideos(String prompt) {
-        
-        log.info("🎬 [MCP Tool] recommend_youtube_videos invocado com prompt");
-        log.debug("📝 Prompt recebido: {}", prompt);
+        RequestLogContext.open(logSampleRate);
+        try {
+            return recommend(prompt);
+        } finally {
+            RequestLogContext.close();
+        }
+    }
+
+    private String recommend(String prompt) {
+        boolean sampled = RequestLogContext.isSampled();
+        if (sampled) {
+            log.atInfo()
+                .addKeyValue("promptChars", prompt != null ? prompt.length() : 0)
+                .log("🎬 [MCP Tool] recommend_youtube_videos invocado com prompt");
+            log.atDebug()
+                .addArgument(() -> RequestLogContext.abbreviate(prompt, maxPromptChars))
+                .log("📝 Prompt recebido: {}");
+        }
         
         // Defensive null/empty check: return structured JSON error if prompt is missing
         if (prompt == null || prompt.isBlank()) {
@@ -70,48 +131,35 @@ public class YouTubeMCPToolController {
                     "suggestions", List.of("Forneça um prompt textual com o perfil do usuário"),
                     "processingTimeMs", 0L
                 );
-                return objectMapper.writeValueAsString(errorResponse);
+                return responseWriter.write(errorResponse);
             } catch (Exception ex) {
                 return "{\"error\":true,\"message\":\"Prompt ausente ou inválido\"}";
             }
         }
         
         try {
-            // 1. Extrair dados do usuário do prompt rico em detalhes
-            UserState userState = extractUserStateFromPrompt(prompt);
-            log.info("📊 UserState extraído - Stress: {}, Energia: {}, Humor: {}", 
-                userState.getStressLevel(),
-                userState.getEnergyLevel(),
-                userState.getCurrentMood());
-            
-            // 2. Extrair preferências adicionais do prompt
-            String category = extractCategory(prompt);
-            String preferredDuration = extractPreferredDuration(prompt);
-            String language = extractLanguage(prompt);
-            Integer maxResults = extractMaxResults(prompt);
-            
-            // 3. Criar request estruturado
-            VideoRecommendationRequest request = new VideoRecommendationRequest();
-            request.setUserState(userState);
-            request.setCategory(category);
-            request.setPreferredDuration(preferredDuration);
-            request.setLanguage(language);
-            request.setMaxResults(maxResults);
+            // 1-3. Extrair perfil e preferências do prompt e montar o request
+            VideoRecommendationRequest request = buildRequest(prompt);
             
-            log.info("🎯 Request criado - Categoria: {}, Duração: {}, Idioma: {}, Max: {}", 
-                category, preferredDuration, language, maxResults);
-            
-            // 4. Obter recomendações do serviço
-            VideoRecommendationResponse response = youtubeService.recommendVideos(request);
+            // 4. Controle de admissão: requests respondíveis pelo cache vão para a fila prioritária
+            VideoRecommendationResponse admitted = admitAndRecommend(request);
+            VideoRecommendationResponse response = admitted != null ? admitted : degradedOrNull(request);
+            if (response == null) {
+                return overloadedResponse();
+            }
             
-            // 5. Converter resposta para JSON string
-            String jsonResponse = objectMapper.writeValueAsString(response);
+            // 5. Converter resposta para JSON string (writer compartilhado, formato pedido no prompt)
+            String jsonResponse = responseWriter.write(response, request.getResponseFormat());
             
-            log.info("✅ [MCP Tool] {} vídeos recomendados em {}ms",
-                response.getRecommendations().stream()
-                    .mapToInt(cat -> cat.getVideos().size())
-                    .sum(),
-                response.getProcessingTimeMs());
+            if (sampled) {
+                log.atInfo()
+                    .addKeyValue("videos", () -> response.getRecommendations().stream()
+                        .mapToInt(cat -> cat.getVideos().size())
+                        .sum())
+                    .addKeyValue("processingTimeMs", response.getProcessingTimeMs())
+                    .addKeyValue("degraded", response.getDegraded() != null)
+                    .log("✅ [MCP Tool] Recomendações entregues");
+            }
             
             return jsonResponse;
             
@@ -128,13 +176,190 @@ public class YouTubeMCPToolController {
                     "suggestions", List.of("Tente novamente em alguns instantes"),
                     "processingTimeMs", 0L
                 );
-                return objectMapper.writeValueAsString(errorResponse);
+                return responseWriter.write(errorResponse);
             } catch (Exception jsonError) {
                 return "{\"error\": true, \"message\": \"Erro ao processar recomendações\"}";
             }
         }
     }
     
+    /**
+     * Tool: record_video_engagement
+     * 
+     * Registra eventos de play e skip dos vídeos recomendados (feedback para o ranking)
+     * Não passa pelo controle de admissão: cada evento só incrementa um contador em memória
+     * 
+     * @param userId Usuário que gerou os eventos (um evento por usuário, vídeo e intervalo de fold)
+     * @param events Lista de eventos "videoId:play" ou "videoId:skip", separados por vírgula, espaço ou linha
+     * @return JSON com o número de eventos aceitos, repetidos e ignorados
+     */
+    @Tool(description = """
+            Registra o engajamento do usuário com vídeos recomendados, para que o ranking aprenda
+            quais vídeos são de fato assistidos.
+            
+            userId: o mesmo identificador usado em recommend_youtube_videos (obrigatório).
+            events: um evento por item, "videoId:play" (usuário abriu/assistiu o vídeo) ou
+            "videoId:skip" (usuário pulou ou abandonou), separados por vírgula, espaço ou quebra de linha.
+            Exemplo: "dQw4w9WgXcQ:play, 9bZkp7q19f0:skip"
+            
+            Cada usuário conta no máximo um evento por vídeo a cada intervalo de contagem (1 minuto por
+            padrão); os repetidos são descartados.
+            Retorna quantos eventos foram aceitos, quantos eram repetidos e quantos foram ignorados por
+            formato inválido.
+            """)
+    public String recordVideoEngagement(
+            @ToolParam(description = "Identificador do usuário") String userId,
+            @ToolParam(description = "Eventos videoId:play ou videoId:skip") String events) {
+        int accepted = 0;
+        int duplicates = 0;
+        int ignored = 0;
+        String user = userId != null && USER_ID_VALUE_PATTERN.matcher(userId.strip()).matches() ? userId.strip() : null;
+        if (events != null) {
+            for (String event : EVENT_SEPARATOR.split(events.strip())) {
+                int separator = event.lastIndexOf(':');
+                String videoId = separator > 0 ? event.substring(0, separator) : null;
+                if (user == null || videoId == null || !VIDEO_ID_PATTERN.matcher(videoId).matches()) {
+                    ignored += event.isEmpty() ? 0 : 1;
+                    continue;
+                }
+                boolean counted;
+                switch (event.substring(separator + 1).toLowerCase()) {
+                    case "play":
+                        counted = engagementCounters.recordPlay(user, videoId);
+                        break;
+                    case "skip":
+                        counted = engagementCounters.recordSkip(user, videoId);
+                        break;
+                    default:
+                        ignored++;
+                        continue;
+                }
+                if (counted) {
+                    accepted++;
+                } else {
+                    duplicates++;
+                }
+            }
+        }
+        if (ignored > 0) {
+            log.debug("⚠️ [MCP Tool] record_video_engagement: {} eventos ignorados", ignored);
+        }
+        return "{\"accepted\":" + accepted + ",\"duplicates\":" + duplicates + ",\"ignored\":" + ignored + "}";
+    }
+    
+    /**
+     * Executa o request na fila CACHE (só dados locais) ou LIVE (YouTube API)
+     * Se o cache expirou entre a checagem e a execução, o request é readmitido na fila LIVE
+     * em vez de chamar a API ocupando uma vaga da fila CACHE
+     * Retorna null se a fila escolhida não tiver vaga (sobrecarga)
+     */
+    private VideoRecommendationResponse admitAndRecommend(VideoRecommendationRequest request) {
+        if (youtubeService.isAnswerableFromCache(request)) {
+            if (!admission.tryAcquire(Lane.CACHE)) {
+                return null;
+            }
+            try {
+                VideoRecommendationResponse cached = youtubeService.recommendCached(request);
+                if (cached != null) {
+                    return cached;
+                }
+            } finally {
+                admission.release(Lane.CACHE);
+            }
+        }
+        if (!admission.tryAcquire(Lane.LIVE)) {
+            return null;
+        }
+        try {
+            return youtubeService.recommendVideos(request);
+        } finally {
+            admission.release(Lane.LIVE);
+        }
+    }
+    
+    /**
+     * Sobrecarga: tenta responder só com cache e pool de canais (sem YouTube API)
+     * Retorna null se não houver vaga nem para isso ou se o cache não tiver vídeos
+     */
+    private VideoRecommendationResponse degradedOrNull(VideoRecommendationRequest request) {
+        if (!admission.tryAcquire(Lane.CACHE)) {
+            return null;
+        }
+        try {
+            VideoRecommendationResponse degraded = youtubeService.recommendFromCache(request);
+            boolean hasVideos = degraded.getRecommendations().stream()
+                .anyMatch(rec -> !rec.getVideos().isEmpty());
+            admission.recordDegraded(hasVideos);
+            return hasVideos ? degraded : null;
+        } finally {
+            admission.release(Lane.CACHE);
+        }
+    }
+    
+    /**
+     * Recusa rápida por sobrecarga, no mesmo formato JSON de erro
+     */
+    private String overloadedResponse() {
+        admission.recordOverloaded();
+        try {
+            Map<String, Object> errorResponse = Map.of(
+                "error", true,
+                "overloaded", true,
+                "message", "Servidor sobrecarregado, tente novamente em instantes",
+                "recommendations", List.of(),
+                "insights", "Não foi possível processar sua solicitação no momento.",
+                "suggestions", List.of("Tente novamente em alguns instantes"),
+                "retryAfterMs", admission.retryAfterMs(),
+                "processingTimeMs", 0L
+            );
+            return responseWriter.write(errorResponse);
+        } catch (Exception e) {
+            return "{\"error\":true,\"overloaded\":true,\"message\":\"Servidor sobrecarregado\"}";
+        }
+    }
+    
+    /**
+     * Monta o request estruturado a partir do prompt em linguagem natural
+     * Também usado pelo simulador de capacidade para reproduzir traces de prompts
+     */
+    public VideoRecommendationRequest buildRequest(String prompt) {
+        // 1. Extrair dados do usuário do prompt rico em detalhes
+        UserState userState = extractUserStateFromPrompt(prompt);
+        
+        // 2. Extrair preferências adicionais do prompt
+        String category = extractCategory(prompt);
+        String preferredDuration = extractPreferredDuration(prompt);
+        String language = extractLanguage(prompt);
+        Integer maxResults = extractMaxResults(prompt);
+        String continuationToken = extractContinuationToken(prompt);
+        String responseFormat = extractResponseFormat(prompt);
+        
+        // 3. Criar request estruturado
+        VideoRecommendationRequest request = new VideoRecommendationRequest();
+        request.setUserState(userState);
+        request.setCategory(category);
+        request.setPreferredDuration(preferredDuration);
+        request.setLanguage(language);
+        request.setMaxResults(maxResults);
+        request.setContinuationToken(continuationToken);
+        request.setResponseFormat(responseFormat);
+        
+        if (RequestLogContext.isSampled()) {
+            log.atInfo()
+                .addKeyValue("stress", userState.getStressLevel())
+                .addKeyValue("energy", userState.getEnergyLevel())
+                .addKeyValue("mood", userState.getCurrentMood())
+                .addKeyValue("category", category)
+                .addKeyValue("duration", preferredDuration)
+                .addKeyValue("language", language)
+                .addKeyValue("maxResults", maxResults)
+                .addKeyValue("continuation", continuationToken != null)
+                .log("🎯 Request criado a partir do prompt");
+        }
+        
+        return request;
+    }
+
     /**
      * Extrai UserState do prompt rico em detalhes
      * Analisa o texto do prompt procurando por padrões e palavras-chave
@@ -142,6 +367,9 @@ public class YouTubeMCPToolController {
     private UserState extractUserStateFromPrompt(String prompt) {
         UserState state = new UserState();
         
+        // Identificação do usuário (para histórico de vídeos já vistos)
+        state.setUserId(extractUserId(prompt));
+        
         // Physical profile
         state.setAge(extractInteger(prompt, "idade|age", 30));
         state.setWeight(extractDouble(prompt, "peso|weight", 70.0));
@@ -174,10 +402,45 @@ public class YouTubeMCPToolController {
         state.setAverageSleepHours(extractDouble(prompt, "sono|sleep|dormir", 7.0));
         state.setSleepQuality(extractSleepQuality(prompt));
         
-        log.debug("📋 UserState extraído: {}", state);
         return state;
     }
     
+    /**
+     * Extrai identificador do usuário (userId, user_id, id do usuário)
+     */
+    private String extractUserId(String prompt) {
+        Matcher m = USER_ID_PATTERN.matcher(prompt);
+        if (m.find()) {
+            return m.group(2);
+        }
+        return null; // Usuário anônimo: sem histórico de vistos
+    }
+    
+    /**
+     * Extrai o continuation token de uma resposta anterior
+     */
+    private String extractContinuationToken(String prompt) {
+        Matcher m = CONTINUATION_TOKEN_PATTERN.matcher(prompt);
+        if (m.find()) {
+            return m.group(2);
+        }
+        return null;
+    }
+    
+    /**
+     * Extrai o formato da resposta (full, compact); null usa o padrão da configuração
+     */
+    private String extractResponseFormat(String prompt) {
+        Matcher m = RESPONSE_FORMAT_PATTERN.matcher(prompt);
+        if (m.find()) {
+            String format = m.group(2).toLowerCase();
+            return format.startsWith("compact") || format.startsWith("resumid")
+                ? ResponseWriter.COMPACT
+                : ResponseWriter.FULL;
+        }
+        return null;
+    }
+    
     /**
      * Extrai categoria do prompt (nature, meditation, music, breathing)
      */
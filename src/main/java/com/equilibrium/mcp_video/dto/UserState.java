@@ -14,6 +14,9 @@ import java.util.Map;
 @AllArgsConstructor
 public class UserState {
     
+    // Identificação (opcional) - usada para não repetir vídeos já recomendados
+    private String userId;
+    
     // Dados de perfil físico
     private Integer age;
     private String gender; // male, female, other
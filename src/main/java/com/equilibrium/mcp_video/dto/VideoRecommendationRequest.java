@@ -40,4 +40,16 @@ public class VideoRecommendationRequest {
      * Idioma preferido (padrão: pt)
      */
     private String language = "pt";
+    
+    /**
+     * Token de uma recomendação anterior (opcional)
+     * Se o perfil continuar no mesmo bucket de queries, só reranqueia os candidatos guardados
+     */
+    private String continuationToken;
+    
+    /**
+     * Formato da resposta (opcional): full ou compact
+     * null usa youtube.response.format
+     */
+    private String responseFormat;
 }
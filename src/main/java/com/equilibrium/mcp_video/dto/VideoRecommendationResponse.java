@@ -1,5 +1,7 @@
 package com.equilibrium.mcp_video.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +21,18 @@ public class VideoRecommendationResponse {
     private List<String> suggestions;
     private Long processingTimeMs;
     
+    /**
+     * true quando a resposta veio só do cache por sobrecarga (omitido nas respostas normais)
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean degraded;
+    
+    /**
+     * Referência aos candidatos desta recomendação, para reranquear sem novas buscas
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String continuationToken;
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -41,5 +55,14 @@ public class VideoRecommendationResponse {
         private String reason; // Por que foi recomendado
         private Integer matchScore; // 0-100
         private List<String> tags;
+        
+        @JsonIgnore
+        private float[] features; // Vetor semântico (uso interno no ranking)
+        
+        @JsonIgnore
+        private String language; // Idioma do vídeo na YouTube API, null se desconhecido (uso interno)
+        
+        @JsonIgnore
+        private String category; // Categoria calculada na conversão, com a descrição completa (uso interno)
     }
 }
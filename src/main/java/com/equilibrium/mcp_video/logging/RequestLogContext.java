@@ -0,0 +1,56 @@
+package com.equilibrium.mcp_video.logging;
+
+import org.slf4j.MDC;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contexto de log por chamada do tool (MDC)
+ *
+ * Cada chamada recebe um requestId e é amostrada uma única vez na entrada:
+ * os logs de detalhe do caminho quente (perfil extraído, queries, tempos)
+ * só são emitidos para a fração youtube.logging.sample-rate das chamadas.
+ * Avisos e erros continuam sempre registrados. Fora de uma chamada do tool
+ * (warm-up, simulador, jobs agendados) nada é amostrado.
+ */
+public final class RequestLogContext {
+
+    public static final String REQUEST_ID = "requestId";
+    public static final String SAMPLED = "sampled";
+
+    private RequestLogContext() {
+    }
+
+    /**
+     * Abre o contexto da chamada e sorteia se ela terá logs de detalhe
+     */
+    public static void open(double sampleRate) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MDC.put(REQUEST_ID, Long.toHexString(random.nextLong()));
+        if (sampleRate >= 1.0 || random.nextDouble() < sampleRate) {
+            MDC.put(SAMPLED, "true");
+        }
+    }
+
+    public static void close() {
+        MDC.remove(REQUEST_ID);
+        MDC.remove(SAMPLED);
+    }
+
+    /**
+     * Indica se a chamada atual foi amostrada para logs de detalhe
+     */
+    public static boolean isSampled() {
+        return MDC.get(SAMPLED) != null;
+    }
+
+    /**
+     * Trecho inicial do texto, com o tamanho original, para não logar prompts inteiros
+     */
+    public static String abbreviate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars) + "... (" + text.length() + " caracteres)";
+    }
+}
@@ -0,0 +1,106 @@
+package com.equilibrium.mcp_video.rules;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Categoria de um vídeo (ou de uma query) por palavras-chave no título e na descrição
+ *
+ * As categorias são testadas na ordem da tabela; vence a primeira com alguma
+ * palavra-chave no título ou trecho na descrição. Sem nenhuma, vale a
+ * categoria padrão. Entradas repetidas da mesma categoria (tabela base e
+ * pacote de idioma) têm as palavras-chave somadas.
+ */
+public final class CategoryMatcher {
+
+    private final String[] categories;
+    private final String[][] titleKeywords;
+    private final String[][] descriptionKeywords;
+    private final String defaultCategory;
+
+    private CategoryMatcher(String[] categories, String[][] titleKeywords, String[][] descriptionKeywords,
+                            String defaultCategory) {
+        this.categories = categories;
+        this.titleKeywords = titleKeywords;
+        this.descriptionKeywords = descriptionKeywords;
+        this.defaultCategory = defaultCategory;
+    }
+
+    /**
+     * Compila as entradas {category, title, description} da seção "categories"
+     *
+     * @throws IllegalArgumentException se a seção estiver vazia ou uma entrada não tiver categoria
+     */
+    static CategoryMatcher compile(List<Map<String, Object>> defs, String defaultCategory) {
+        if (defs.isEmpty()) {
+            throw new IllegalArgumentException("Seção 'categories' obrigatória na tabela de regras");
+        }
+        Map<String, Set<String>> titles = new LinkedHashMap<>();
+        Map<String, Set<String>> descriptions = new LinkedHashMap<>();
+        for (Map<String, Object> def : defs) {
+            Object category = def.get("category");
+            if (category == null) {
+                throw new IllegalArgumentException("Entrada de 'categories' sem 'category': " + def);
+            }
+            String name = category.toString();
+            titles.computeIfAbsent(name, k -> new LinkedHashSet<>()).addAll(keywords(def.get("title")));
+            descriptions.computeIfAbsent(name, k -> new LinkedHashSet<>()).addAll(keywords(def.get("description")));
+        }
+        List<String> names = new ArrayList<>(titles.keySet());
+        String[][] titleKeywords = new String[names.size()][];
+        String[][] descriptionKeywords = new String[names.size()][];
+        for (int i = 0; i < names.size(); i++) {
+            titleKeywords[i] = titles.get(names.get(i)).toArray(new String[0]);
+            descriptionKeywords[i] = descriptions.get(names.get(i)).toArray(new String[0]);
+        }
+        return new CategoryMatcher(names.toArray(new String[0]), titleKeywords, descriptionKeywords, defaultCategory);
+    }
+
+    /**
+     * Categorias na ordem da tabela, com a categoria padrão no fim se ela não tiver palavras-chave
+     */
+    public List<String> categories() {
+        List<String> names = new ArrayList<>(List.of(categories));
+        if (!names.contains(defaultCategory)) {
+            names.add(defaultCategory);
+        }
+        return names;
+    }
+
+    public String categorize(String title, String description) {
+        String titleLower = title != null ? title.toLowerCase(Locale.ROOT) : "";
+        String descLower = description != null ? description.toLowerCase(Locale.ROOT) : "";
+        for (int i = 0; i < categories.length; i++) {
+            if (containsAny(titleLower, titleKeywords[i]) || containsAny(descLower, descriptionKeywords[i])) {
+                return categories[i];
+            }
+        }
+        return defaultCategory;
+    }
+
+    private static boolean containsAny(String text, String[] keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> keywords(Object raw) {
+        List<String> keywords = new ArrayList<>();
+        if (raw instanceof List<?> values) {
+            for (Object value : values) {
+                keywords.add(String.valueOf(value).toLowerCase(Locale.ROOT));
+            }
+        } else if (raw != null) {
+            keywords.add(String.valueOf(raw).toLowerCase(Locale.ROOT));
+        }
+        return keywords;
+    }
+}
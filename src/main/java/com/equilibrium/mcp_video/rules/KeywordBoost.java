@@ -0,0 +1,36 @@
+package com.equilibrium.mcp_video.rules;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pontos extras quando o título contém qualquer uma das palavras-chave
+ */
+public final class KeywordBoost {
+
+    private final String[] keywords;
+    private final int points;
+
+    public KeywordBoost(List<String> keywords, int points) {
+        this.keywords = keywords.stream()
+            .map(keyword -> keyword.toLowerCase(Locale.ROOT))
+            .toArray(String[]::new);
+        this.points = points;
+    }
+
+    /**
+     * Pontos a somar para o título (já em minúsculas)
+     */
+    public int score(String titleLower) {
+        for (String keyword : keywords) {
+            if (titleLower.contains(keyword)) {
+                return points;
+            }
+        }
+        return 0;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+}
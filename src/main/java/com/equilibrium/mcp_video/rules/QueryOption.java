@@ -0,0 +1,27 @@
+package com.equilibrium.mcp_video.rules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Query candidata de um resultado de regras, com o sinal do perfil que ela cobre
+ *
+ * Cada entrada da seção "queries" que casou com o usuário é um sinal (grupo);
+ * basta uma query do grupo para o sinal estar coberto no plano de busca.
+ */
+@Getter
+@AllArgsConstructor
+public class QueryOption {
+
+    private final String query;
+
+    /**
+     * Índice da entrada de regras que gerou a query (fallback usa índices negativos)
+     */
+    private final int group;
+
+    /**
+     * Importância do sinal (campo "weight" da entrada, padrão 1)
+     */
+    private final double weight;
+}
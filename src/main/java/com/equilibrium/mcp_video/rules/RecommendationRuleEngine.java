@@ -0,0 +1,198 @@
+package com.equilibrium.mcp_video.rules;
+
+import com.equilibrium.mcp_video.dto.UserState;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrega a tabela de regras (YAML) e os pacotes de idioma, compila e mantém a versão ativa
+ *
+ * A tabela base (youtube.rules.location) atende o idioma padrão. Cada idioma
+ * de youtube.rules.languages tem um pacote no mesmo local com sufixo
+ * (recommendation-rules-en.yml) com queries, boosts, categorias e textos
+ * próprios, compilado uma vez em sua própria tabela. Idiomas sem pacote usam
+ * a tabela base.
+ *
+ * Quando youtube.rules.location aponta para um arquivo (file:...), as tabelas
+ * são recompiladas automaticamente ao detectar alteração, sem redeploy. Se a
+ * nova versão for inválida, a anterior continua em uso.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationRuleEngine {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${youtube.rules.location:classpath:recommendation-rules.yml}")
+    private String location;
+
+    @Value("${youtube.rules.default-language:pt}")
+    private String defaultLanguage;
+
+    @Value("${youtube.rules.languages:en,es}")
+    private List<String> languages;
+
+    private volatile Map<String, RecommendationRules> packs;
+    private volatile long lastModified = -1L;
+
+    @PostConstruct
+    void load() {
+        try {
+            long modified = lastModified();
+            packs = compileAll();
+            lastModified = modified;
+            log.info("📐 Regras de recomendação carregadas de {} ({} condições, idiomas: {})",
+                location, packs.get(defaultLanguage).conditionCount(), packs.keySet());
+        } catch (Exception e) {
+            throw new IllegalStateException("Erro ao carregar regras de recomendação: " + location, e);
+        }
+    }
+
+    /**
+     * Recompila a tabela se o arquivo externo foi alterado
+     */
+    @Scheduled(fixedDelayString = "${youtube.rules.reload-interval:PT30S}",
+               initialDelayString = "${youtube.rules.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (!resourceLoader.getResource(location).isFile()) {
+            return; // Regras empacotadas no JAR não mudam em runtime
+        }
+        long modified = lastModified();
+        if (modified <= lastModified) {
+            return;
+        }
+        try {
+            packs = compileAll();
+            lastModified = modified;
+            log.info("🔄 Regras de recomendação recarregadas de {}", location);
+        } catch (Exception e) {
+            lastModified = modified; // Não tentar de novo até o arquivo mudar outra vez
+            log.error("❌ Regras inválidas em {}, mantendo versão anterior", location, e);
+        }
+    }
+
+    /**
+     * Avalia as condições do usuário uma única vez e devolve as ações do pacote do idioma
+     */
+    public RuleOutcome evaluate(UserState userState, String category, String language) {
+        RecommendationRules current = rules(language);
+        return current.outcome(current.evaluate(userState, category));
+    }
+
+    /**
+     * Todas as queries possíveis do pacote do idioma (pré-aquecimento de cache)
+     */
+    public List<String> allQueries(String language) {
+        return rules(language).allQueries();
+    }
+
+    /**
+     * Categoria do vídeo (ou da query) pelas palavras-chave do pacote do idioma
+     */
+    public String categorize(String title, String description, String language) {
+        return rules(language).categorize(title, description);
+    }
+
+    /**
+     * Categorias de todos os pacotes (a tabela base primeiro), incluindo a padrão
+     */
+    public List<String> categories() {
+        Map<String, RecommendationRules> current = packs;
+        LinkedHashSet<String> categories = new LinkedHashSet<>(current.get(defaultLanguage).categories());
+        for (RecommendationRules rules : current.values()) {
+            categories.addAll(rules.categories());
+        }
+        return new ArrayList<>(categories);
+    }
+
+    /**
+     * Monta o texto de insights com os valores do usuário
+     */
+    public String renderInsights(RuleOutcome outcome, UserState userState, String category) {
+        StringBuilder insights = new StringBuilder();
+        for (String template : outcome.getInsightTemplates()) {
+            insights.append(RecommendationRules.render(template, userState, category));
+        }
+        return insights.toString();
+    }
+
+    /**
+     * Tabela do idioma, ou a base se o idioma não tiver pacote
+     */
+    private RecommendationRules rules(String language) {
+        Map<String, RecommendationRules> current = packs;
+        RecommendationRules rules = language != null ? current.get(language) : null;
+        return rules != null ? rules : current.get(defaultLanguage);
+    }
+
+    private Map<String, RecommendationRules> compileAll() throws Exception {
+        Map<String, Object> base = read(resourceLoader.getResource(location));
+        Map<String, RecommendationRules> compiled = new HashMap<>();
+        compiled.put(defaultLanguage, RecommendationRules.compile(base));
+        for (String language : languages) {
+            String packLocation = packLocation(language);
+            Resource resource = resourceLoader.getResource(packLocation);
+            if (!resource.exists()) {
+                log.warn("⚠️ Pacote de regras do idioma '{}' não encontrado ({}), usando a tabela base",
+                    language, packLocation);
+                continue;
+            }
+            try {
+                compiled.put(language, RecommendationRules.compile(base, read(resource)));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Pacote de regras inválido: " + packLocation, e);
+            }
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private Map<String, Object> read(Resource resource) throws Exception {
+        try (InputStream in = resource.getInputStream()) {
+            return new Yaml().load(in);
+        }
+    }
+
+    /**
+     * Local do pacote: mesmo arquivo da tabela base com sufixo do idioma (regras.yml -> regras-en.yml)
+     */
+    private String packLocation(String language) {
+        int dot = location.lastIndexOf('.');
+        return dot > location.lastIndexOf('/')
+            ? location.substring(0, dot) + "-" + language + location.substring(dot)
+            : location + "-" + language;
+    }
+
+    /**
+     * Última alteração entre a tabela base e os pacotes
+     */
+    private long lastModified() {
+        long modified = lastModified(resourceLoader.getResource(location));
+        for (String language : languages) {
+            modified = Math.max(modified, lastModified(resourceLoader.getResource(packLocation(language))));
+        }
+        return modified;
+    }
+
+    private long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.equilibrium.mcp_video.rules;
+
+import com.equilibrium.mcp_video.dto.UserState;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tabela de regras compilada a partir do YAML
+ *
+ * Cada condição nomeada recebe um bit; as entradas de cada seção guardam as
+ * máscaras exigidas ("when") e proibidas ("unless"). A avaliação de um
+ * usuário produz uma única máscara e o {@link RuleOutcome} correspondente é
+ * montado uma vez e reaproveitado por todos os requests com a mesma máscara.
+ *
+ * Um pacote de idioma é compilado sobre a tabela base: as seções que o pacote
+ * define substituem as da base, as condições são sempre as da base, e as
+ * palavras-chave de categorias e os textos fixos (phrases) são somados.
+ */
+public final class RecommendationRules {
+
+    private static final int MAX_CONDITIONS = 64;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+    private static final String DEFAULT_CATEGORY = "music";
+
+    /**
+     * Campos disponíveis para condições e placeholders
+     */
+    private static final Map<String, BiFunction<UserState, String, Object>> FIELDS = Map.ofEntries(
+        Map.entry("age", (state, category) -> state.getAge()),
+        Map.entry("gender", (state, category) -> state.getGender()),
+        Map.entry("activityLevel", (state, category) -> state.getActivityLevel()),
+        Map.entry("healthGoal", (state, category) -> state.getHealthGoal()),
+        Map.entry("currentMood", (state, category) -> state.getCurrentMood()),
+        Map.entry("moodTrend", (state, category) -> state.getMoodTrend()),
+        Map.entry("stressLevel", (state, category) -> state.getStressLevel()),
+        Map.entry("anxietyLevel", (state, category) -> state.getAnxietyLevel()),
+        Map.entry("energyLevel", (state, category) -> state.getEnergyLevel()),
+        Map.entry("currentLevel", (state, category) -> state.getCurrentLevel()),
+        Map.entry("currentStreak", (state, category) -> state.getCurrentStreak()),
+        Map.entry("totalXP", (state, category) -> state.getTotalXP()),
+        Map.entry("averageCalories", (state, category) -> state.getAverageCalories()),
+        Map.entry("waterIntake", (state, category) -> state.getWaterIntake()),
+        Map.entry("mealsPerDay", (state, category) -> state.getMealsPerDay()),
+        Map.entry("physicalActivityMinutes", (state, category) -> state.getPhysicalActivityMinutes()),
+        Map.entry("averageSleepHours", (state, category) -> state.getAverageSleepHours()),
+        Map.entry("sleepQuality", (state, category) -> state.getSleepQuality()),
+        Map.entry("category", (state, category) -> category)
+    );
+
+    private final List<Condition> conditions;
+    private final List<Entry<String>> queries;
+    private final List<Double> queryWeights;
+    private final List<String> fallbackQueries;
+    private final List<Entry<KeywordBoost>> boosts;
+    private final List<KeywordBoost> qualityBoosts;
+    private final List<Entry<String>> terms;
+    private final List<String> fallbackTerms;
+    private final List<Entry<String>> reasons;
+    private final List<Entry<String>> insights;
+    private final List<String> fallbackInsights;
+    private final List<Entry<String>> suggestions;
+    private final CategoryMatcher categoryMatcher;
+    private final Map<String, String> phrases;
+
+    private final Map<Long, RuleOutcome> outcomes = new ConcurrentHashMap<>();
+
+    private RecommendationRules(Map<String, Object> document) {
+        Map<String, Integer> bits = new HashMap<>();
+        List<Condition> compiled = new ArrayList<>();
+        Map<String, Object> conditionDefs = section(document, "conditions");
+        for (Map.Entry<String, Object> def : conditionDefs.entrySet()) {
+            if (compiled.size() == MAX_CONDITIONS) {
+                throw new IllegalArgumentException("Máximo de " + MAX_CONDITIONS + " condições por tabela de regras");
+            }
+            bits.put(def.getKey(), compiled.size());
+            compiled.add(Condition.parse(def.getKey(), asMap(def.getValue(), def.getKey())));
+        }
+        this.conditions = List.copyOf(compiled);
+
+        this.queries = entries(document, "queries", bits, RecommendationRules::values);
+        this.queryWeights = list(document.get("queries")).stream()
+            .map(raw -> weight(asMap(raw, "queries")))
+            .toList();
+        this.fallbackQueries = strings(document.get("fallbackQueries"));
+        this.boosts = entries(document, "boosts", bits, RecommendationRules::boost);
+        this.qualityBoosts = list(document.get("qualityBoosts")).stream()
+            .flatMap(raw -> boost(asMap(raw, "qualityBoosts")).stream())
+            .toList();
+        this.terms = entries(document, "terms", bits, RecommendationRules::values);
+        this.fallbackTerms = strings(document.get("fallbackTerms"));
+        this.reasons = entries(document, "reasons", bits, RecommendationRules::values);
+        this.insights = entries(document, "insights", bits, RecommendationRules::values);
+        this.fallbackInsights = strings(document.get("fallbackInsights"));
+        this.suggestions = entries(document, "suggestions", bits, RecommendationRules::values);
+        this.categoryMatcher = CategoryMatcher.compile(
+            list(document.get("categories")).stream().map(raw -> asMap(raw, "categories")).toList(),
+            String.valueOf(document.getOrDefault("defaultCategory", DEFAULT_CATEGORY)));
+        Map<String, String> compiledPhrases = new HashMap<>();
+        section(document, "phrases").forEach((key, value) -> compiledPhrases.put(key, String.valueOf(value)));
+        this.phrases = Map.copyOf(compiledPhrases);
+    }
+
+    /**
+     * Compila o documento YAML já carregado em mapa
+     *
+     * @throws IllegalArgumentException se o documento for inválido
+     */
+    public static RecommendationRules compile(Map<String, Object> document) {
+        if (document == null) {
+            throw new IllegalArgumentException("Arquivo de regras vazio");
+        }
+        return new RecommendationRules(document);
+    }
+
+    /**
+     * Compila um pacote de idioma sobre a tabela base
+     *
+     * @throws IllegalArgumentException se o pacote for inválido ou tentar redefinir as condições
+     */
+    public static RecommendationRules compile(Map<String, Object> base, Map<String, Object> pack) {
+        if (base == null || pack == null) {
+            throw new IllegalArgumentException("Arquivo de regras vazio");
+        }
+        if (pack.containsKey("conditions")) {
+            throw new IllegalArgumentException("Pacote de idioma não pode redefinir 'conditions' (ficam na tabela base)");
+        }
+        Map<String, Object> merged = new LinkedHashMap<>(base);
+        merged.putAll(pack);
+        List<Object> categories = new ArrayList<>(list(base.get("categories")));
+        categories.addAll(list(pack.get("categories")));
+        merged.put("categories", categories);
+        Map<String, Object> phrases = new LinkedHashMap<>(section(base, "phrases"));
+        phrases.putAll(section(pack, "phrases"));
+        merged.put("phrases", phrases);
+        return new RecommendationRules(merged);
+    }
+
+    /**
+     * Avalia todas as condições de uma vez e devolve a máscara resultante
+     */
+    public long evaluate(UserState userState, String category) {
+        long mask = 0L;
+        for (int bit = 0; bit < conditions.size(); bit++) {
+            if (conditions.get(bit).test(userState, category)) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Ações indexadas pela máscara (montadas na primeira vez e reaproveitadas)
+     */
+    public RuleOutcome outcome(long mask) {
+        return outcomes.computeIfAbsent(mask, this::buildOutcome);
+    }
+
+    /**
+     * Todas as queries da tabela (condicionais e fallback), sem repetição
+     */
+    public List<String> allQueries() {
+        Set<String> all = new LinkedHashSet<>();
+        for (Entry<String> entry : queries) {
+            all.addAll(entry.values);
+        }
+        all.addAll(fallbackQueries);
+        return List.copyOf(all);
+    }
+
+    /**
+     * Substitui placeholders {campo} pelos valores do usuário
+     */
+    public static String render(String template, UserState userState, String category) {
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            BiFunction<UserState, String, Object> field = FIELDS.get(matcher.group(1));
+            Object value = field != null ? field.apply(userState, category) : null;
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(value != null ? value.toString() : ""));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+
+    /**
+     * Categoria do vídeo pelas palavras-chave desta tabela
+     */
+    public String categorize(String title, String description) {
+        return categoryMatcher.categorize(title, description);
+    }
+
+    /**
+     * Categorias desta tabela, incluindo a padrão
+     */
+    public List<String> categories() {
+        return categoryMatcher.categories();
+    }
+
+    public int conditionCount() {
+        return conditions.size();
+    }
+
+    private RuleOutcome buildOutcome(long mask) {
+        List<String> matchedQueries = collect(queries, mask).stream().distinct().toList();
+        List<String> matchedTerms = collect(terms, mask);
+        List<String> matchedInsights = collect(insights, mask);
+        return new RuleOutcome(
+            mask,
+            matchedQueries.isEmpty() ? fallbackQueries : matchedQueries,
+            queryOptions(mask),
+            collect(boosts, mask),
+            qualityBoosts,
+            String.join(" ", matchedTerms.isEmpty() ? fallbackTerms : matchedTerms),
+            collect(reasons, mask),
+            matchedInsights.isEmpty() ? fallbackInsights : matchedInsights,
+            collect(suggestions, mask),
+            phrases
+        );
+    }
+
+    /**
+     * Queries casadas com o sinal (entrada) de origem; cada query de fallback é um sinal próprio
+     */
+    private List<QueryOption> queryOptions(long mask) {
+        List<QueryOption> options = new ArrayList<>();
+        for (int group = 0; group < queries.size(); group++) {
+            Entry<String> entry = queries.get(group);
+            if (entry.matches(mask)) {
+                for (String query : entry.values) {
+                    options.add(new QueryOption(query, group, queryWeights.get(group)));
+                }
+            }
+        }
+        if (options.isEmpty()) {
+            for (int i = 0; i < fallbackQueries.size(); i++) {
+                options.add(new QueryOption(fallbackQueries.get(i), -1 - i, 1.0));
+            }
+        }
+        return List.copyOf(options);
+    }
+
+    private static <T> List<T> collect(List<Entry<T>> entries, long mask) {
+        List<T> values = new ArrayList<>();
+        for (Entry<T> entry : entries) {
+            if (entry.matches(mask)) {
+                values.addAll(entry.values);
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    private static <T> List<Entry<T>> entries(Map<String, Object> document, String name, Map<String, Integer> bits,
+                                              Function<Map<String, Object>, List<T>> values) {
+        List<Entry<T>> entries = new ArrayList<>();
+        for (Object raw : list(document.get(name))) {
+            Map<String, Object> def = asMap(raw, name);
+            entries.add(new Entry<>(
+                mask(def.get("when"), bits, name),
+                mask(def.get("unless"), bits, name),
+                values.apply(def)
+            ));
+        }
+        return List.copyOf(entries);
+    }
+
+    private static long mask(Object names, Map<String, Integer> bits, String section) {
+        long mask = 0L;
+        for (String name : strings(names)) {
+            Integer bit = bits.get(name);
+            if (bit == null) {
+                throw new IllegalArgumentException("Condição desconhecida '" + name + "' em " + section);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private static List<String> values(Map<String, Object> def) {
+        return strings(def.get("values"));
+    }
+
+    private static double weight(Map<String, Object> def) {
+        Object weight = def.get("weight");
+        if (weight == null) {
+            return 1.0;
+        }
+        if (!(weight instanceof Number) || ((Number) weight).doubleValue() <= 0) {
+            throw new IllegalArgumentException("'weight' deve ser um número positivo: " + def);
+        }
+        return ((Number) weight).doubleValue();
+    }
+
+    private static List<KeywordBoost> boost(Map<String, Object> def) {
+        Object points = def.get("points");
+        if (!(points instanceof Number)) {
+            throw new IllegalArgumentException("Boost sem 'points' numérico: " + def);
+        }
+        return List.of(new KeywordBoost(strings(def.get("keywords")), ((Number) points).intValue()));
+    }
+
+    private static List<String> strings(Object raw) {
+        return list(raw).stream().map(String::valueOf).toList();
+    }
+
+    private static List<?> list(Object raw) {
+        if (raw == null) {
+            return List.of();
+        }
+        if (raw instanceof List<?> values) {
+            return values;
+        }
+        return List.of(raw);
+    }
+
+    private static Map<String, Object> section(Map<String, Object> document, String name) {
+        Object raw = document.get(name);
+        return raw == null ? Map.of() : asMap(raw, name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object raw, String context) {
+        if (!(raw instanceof Map)) {
+            throw new IllegalArgumentException("Esperado objeto em '" + context + "', encontrado: " + raw);
+        }
+        return (Map<String, Object>) raw;
+    }
+
+    /**
+     * Entrada de uma seção de ações
+     */
+    private static final class Entry<T> {
+        private final long required;
+        private final long forbidden;
+        private final List<T> values;
+
+        private Entry(long required, long forbidden, List<T> values) {
+            this.required = required;
+            this.forbidden = forbidden;
+            this.values = values;
+        }
+
+        private boolean matches(long mask) {
+            return (mask & required) == required && (mask & forbidden) == 0;
+        }
+    }
+
+    /**
+     * Condição de limiar sobre um campo do usuário
+     */
+    private static final class Condition {
+        private final BiFunction<UserState, String, Object> field;
+        private final String op;
+        private final Object value;
+
+        private Condition(BiFunction<UserState, String, Object> field, String op, Object value) {
+            this.field = field;
+            this.op = op;
+            this.value = value;
+        }
+
+        private static Condition parse(String name, Map<String, Object> def) {
+            BiFunction<UserState, String, Object> field = FIELDS.get(String.valueOf(def.get("field")));
+            if (field == null) {
+                throw new IllegalArgumentException("Campo desconhecido na condição '" + name + "': " + def.get("field"));
+            }
+            String op = String.valueOf(def.get("op"));
+            Object value = def.get("value");
+            switch (op) {
+                case "gt":
+                case "gte":
+                case "lt":
+                case "lte":
+                    if (!(value instanceof Number)) {
+                        throw new IllegalArgumentException("Condição '" + name + "' exige valor numérico");
+                    }
+                    break;
+                case "eq":
+                case "ne":
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operador desconhecido na condição '" + name + "': " + op);
+            }
+            return new Condition(field, op, value);
+        }
+
+        private boolean test(UserState userState, String category) {
+            Object actual = field.apply(userState, category);
+            if (actual == null) {
+                return false;
+            }
+            switch (op) {
+                case "eq": return String.valueOf(value).equals(String.valueOf(actual));
+                case "ne": return !String.valueOf(value).equals(String.valueOf(actual));
+                default:
+                    if (!(actual instanceof Number)) {
+                        return false;
+                    }
+                    double left = ((Number) actual).doubleValue();
+                    double right = ((Number) value).doubleValue();
+                    switch (op) {
+                        case "gt": return left > right;
+                        case "gte": return left >= right;
+                        case "lt": return left < right;
+                        default: return left <= right;
+                    }
+            }
+        }
+    }
+}
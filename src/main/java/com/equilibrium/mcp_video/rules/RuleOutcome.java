@@ -0,0 +1,82 @@
+package com.equilibrium.mcp_video.rules;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ações resultantes de uma máscara de condições
+ *
+ * Instâncias são imutáveis e compartilhadas entre todos os requests com a
+ * mesma máscara; só os placeholders de insights dependem dos valores do usuário.
+ */
+@Getter
+@AllArgsConstructor
+public class RuleOutcome {
+
+    /**
+     * Marcador na seção "reasons" da posição do trecho de duração do vídeo
+     */
+    public static final String DURATION_REASON = "{duration}";
+
+    /**
+     * Máscara de condições verdadeiras que gerou este resultado
+     */
+    private final long mask;
+
+    private final List<String> queries;
+
+    /**
+     * Queries com o sinal que cada uma cobre, para o planejador de buscas
+     */
+    private final List<QueryOption> queryOptions;
+    private final List<KeywordBoost> boosts;
+    private final List<KeywordBoost> qualityBoosts;
+    private final String terms;
+    private final List<String> reasons;
+    private final List<String> insightTemplates;
+    private final List<String> suggestions;
+
+    /**
+     * Textos fixos do idioma da tabela (prefixo e trechos de duração das razões)
+     */
+    private final Map<String, String> phrases;
+
+    /**
+     * Texto fixo pela chave, ou o padrão se a tabela não o definir
+     */
+    public String phrase(String key, String defaultText) {
+        return phrases.getOrDefault(key, defaultText);
+    }
+
+    /**
+     * Razão completa de um vídeo: trechos do usuário com o de duração na posição do marcador
+     * (no fim, se a tabela não tiver marcador); null em {@code durationReason} omite o trecho
+     */
+    public String videoReason(String durationReason) {
+        List<String> fragments = new ArrayList<>(reasons.size() + 1);
+        boolean placed = false;
+        for (String reason : reasons) {
+            if (DURATION_REASON.equals(reason)) {
+                placed = true;
+                if (durationReason != null) {
+                    fragments.add(durationReason);
+                }
+            } else {
+                fragments.add(reason);
+            }
+        }
+        if (!placed && durationReason != null) {
+            fragments.add(durationReason);
+        }
+
+        if (fragments.isEmpty()) {
+            return phrase("defaultReason", "Recomendado para seu bem-estar e equilíbrio");
+        }
+
+        return phrase("reasonPrefix", "Recomendado porque ") + String.join(", ", fragments);
+    }
+}
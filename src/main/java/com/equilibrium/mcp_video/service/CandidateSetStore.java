@@ -0,0 +1,131 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Conjuntos de candidatos de recomendações anteriores, referenciados por um
+ * continuation token opaco
+ *
+ * Quando o app pede de novo com um perfil levemente diferente (novo check-in
+ * de humor) e o perfil continua no mesmo bucket de queries (mesmas queries,
+ * duração e idioma), o serviço só reranqueia os candidatos guardados, sem
+ * buscar de novo. LRU com TTL renovado a cada uso do token; o token só vale
+ * para o mesmo userId.
+ */
+@Component
+@RequiredArgsConstructor
+public class CandidateSetStore {
+
+    private final VideoConverter videoConverter;
+
+    @Value("${youtube.continuation.ttl:PT30M}")
+    private Duration ttl;
+
+    @Value("${youtube.continuation.max-sets:1000}")
+    private int maxSets;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * Chave do bucket de queries: requests com a mesma chave buscariam exatamente os mesmos vídeos
+     */
+    public static String bucketKey(List<String> queries, String duration, String language) {
+        return String.join("\n", queries) + '|' + duration + '|' + language;
+    }
+
+    /**
+     * Guarda os candidatos e devolve o token que os referencia
+     */
+    public String put(String userId, String bucketKey, List<RecommendedVideo> candidates) {
+        String token = UUID.randomUUID().toString().replace("-", "");
+        List<CatalogVideo> compacted = candidates.stream()
+            .map(videoConverter::compact)
+            .toList();
+        Entry entry = new Entry(userId, bucketKey, compacted, System.currentTimeMillis() + ttl.toMillis());
+        lock.lock();
+        try {
+            entries.put(token, entry);
+            if (entries.size() > maxSets) {
+                Iterator<String> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return token;
+    }
+
+    /**
+     * DTOs novos dos candidatos do token, ou null se o token expirou, é de outro usuário
+     * ou o perfil mudou de bucket de queries
+     */
+    public List<RecommendedVideo> get(String token, String userId, String bucketKey) {
+        Entry entry = lookup(token, userId, bucketKey);
+        if (entry == null) {
+            return null;
+        }
+        return entry.candidates.stream()
+            .map(videoConverter::materialize)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Indica se o token ainda atende o bucket (sem copiar os candidatos)
+     */
+    public boolean contains(String token, String userId, String bucketKey) {
+        return lookup(token, userId, bucketKey) != null;
+    }
+
+    private Entry lookup(String token, String userId, String bucketKey) {
+        if (token == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.get(token);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                entries.remove(token);
+                return null;
+            }
+            if (!Objects.equals(entry.userId, userId) || !entry.bucketKey.equals(bucketKey)) {
+                return null;
+            }
+            // Como a ordem do LRU, o TTL conta a partir do último uso do token
+            entry.expiresAt = System.currentTimeMillis() + ttl.toMillis();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final String userId;
+        private final String bucketKey;
+        private final List<CatalogVideo> candidates;
+        private long expiresAt;
+
+        private Entry(String userId, String bucketKey, List<CatalogVideo> candidates, long expiresAt) {
+            this.userId = userId;
+            this.bucketKey = bucketKey;
+            this.candidates = candidates;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
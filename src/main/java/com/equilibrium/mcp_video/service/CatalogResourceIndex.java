@@ -0,0 +1,341 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice em memória do pool de canais curados, servido como MCP resources
+ *
+ * Os vídeos do {@link VideoCatalog} são particionados por categoria e faixa
+ * de duração, ordenados por (duração, videoId) e quebrados em páginas já
+ * serializadas em JSON. Navegar pelo catálogo não chama a YouTube API: a
+ * leitura de uma página é uma busca binária e a devolução de uma String.
+ *
+ * Só o pool de canais curados (youtube.channels.ids) é indexado; resultados
+ * de busca em cache não entram. Sem canais configurados (o padrão), todos os
+ * buckets ficam vazios. As categorias vêm da tabela de regras (todas as
+ * categorias dos pacotes mais a padrão), além de "all".
+ *
+ * URIs: youtube://catalog (buckets disponíveis),
+ * youtube://catalog/{category}/{duration} (primeira página) e
+ * youtube://catalog/{category}/{duration}/{cursor} (páginas seguintes).
+ * O cursor é opaco e aponta para o último vídeo entregue, então continua
+ * válido mesmo depois que o índice é reconstruído por uma nova ingestão.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogResourceIndex {
+
+    public static final String URI_PREFIX = "youtube://catalog";
+    public static final String ALL_CATEGORIES = "all";
+    public static final List<String> DURATIONS = List.of("any", "short", "medium", "long");
+    public static final String PAGE_TEMPLATE = URI_PREFIX + "/{category}/{duration}";
+    public static final String NEXT_PAGE_TEMPLATE = PAGE_TEMPLATE + "/{cursor}";
+
+    private static final int SHORT_MAX_SECONDS = 4 * 60;   // Mesmas faixas do filtro videoDuration da API
+    private static final int MEDIUM_MAX_SECONDS = 20 * 60;
+
+    private static final Comparator<CatalogVideo> ORDER = Comparator
+        .comparingInt(CatalogVideo::getDurationSeconds)
+        .thenComparing(CatalogVideo::getVideoId);
+
+    private final VideoCatalog videoCatalog;
+    private final RecommendationRuleEngine ruleEngine;
+    private final ResponseWriter responseWriter;
+
+    @Value("${youtube.resources.page-size:20}")
+    private int pageSize;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(-1L, List.of(), Map.of(), "{}");
+
+    /**
+     * Conteúdo JSON do resource indicado pela URI
+     *
+     * @throws IllegalArgumentException se a URI não corresponder a um bucket conhecido
+     */
+    public String read(String uri) {
+        Snapshot current = current();
+        if (uri.equals(URI_PREFIX) || uri.equals(URI_PREFIX + "/")) {
+            return current.directory;
+        }
+        if (!uri.startsWith(URI_PREFIX + "/")) {
+            throw new IllegalArgumentException("Resource desconhecido: " + uri);
+        }
+        String[] parts = uri.substring(URI_PREFIX.length() + 1).split("/");
+        Bucket bucket = parts.length >= 2 && parts.length <= 3 && DURATIONS.contains(parts[1])
+            ? current.buckets.get(bucketKey(parts[0], parts[1]))
+            : null;
+        if (bucket == null) {
+            throw new IllegalArgumentException("Resource desconhecido: " + uri
+                + " (categorias: " + current.categories + ", durações: " + DURATIONS + ")");
+        }
+        if (parts.length == 2) {
+            return bucket.page(0, this);
+        }
+        String cursor = decodeCursor(parts[2]);
+        int separator = cursor.indexOf(':');
+        int start = bucket.indexAfter(Integer.parseInt(cursor.substring(0, separator)), cursor.substring(separator + 1));
+        return bucket.page(start, this);
+    }
+
+    /**
+     * "all" mais as categorias da tabela de regras vigente
+     */
+    public List<String> categories() {
+        List<String> categories = new ArrayList<>();
+        categories.add(ALL_CATEGORIES);
+        categories.addAll(ruleEngine.categories());
+        return categories;
+    }
+
+    /**
+     * URI concreta da primeira página de cada bucket (categoria x duração)
+     */
+    public List<String> bucketUris() {
+        List<String> categories = categories();
+        List<String> uris = new ArrayList<>(categories.size() * DURATIONS.size());
+        for (String category : categories) {
+            for (String duration : DURATIONS) {
+                uris.add(URI_PREFIX + "/" + category + "/" + duration);
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Se a URI é a primeira página do bucket ou uma página seguinte (bucket + "/" + cursor)
+     */
+    public static boolean isPageOf(String bucketUri, String uri) {
+        if (uri.equals(bucketUri)) {
+            return true;
+        }
+        int cursorStart = bucketUri.length() + 1;
+        return uri.length() > cursorStart
+            && uri.startsWith(bucketUri + "/")
+            && uri.indexOf('/', cursorStart) < 0;
+    }
+
+    /**
+     * Índice atual, reconstruído quando o pool de canais ou as categorias das regras mudam
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long catalogVersion = videoCatalog.version();
+        if (current.version == catalogVersion && current.categories.equals(categories())) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (current.version != catalogVersion || !current.categories.equals(categories())) {
+                current = build(catalogVersion);
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Snapshot build(long version) {
+        long start = System.currentTimeMillis();
+        // Versão lida antes da cópia: uma ingestão concorrente só provoca outra reconstrução
+        Map<String, List<CatalogVideo>> grouped = new HashMap<>();
+        for (CatalogVideo video : videoCatalog.snapshot()) {
+            String category = video.getCategory() != null
+                ? video.getCategory()
+                : ruleEngine.categorize(video.getTitle(), video.getDescription(), video.getLanguage());
+            String duration = durationBucket(video.getDurationSeconds());
+            grouped.computeIfAbsent(bucketKey(category, duration), k -> new ArrayList<>()).add(video);
+            grouped.computeIfAbsent(bucketKey(category, "any"), k -> new ArrayList<>()).add(video);
+            grouped.computeIfAbsent(bucketKey(ALL_CATEGORIES, duration), k -> new ArrayList<>()).add(video);
+            grouped.computeIfAbsent(bucketKey(ALL_CATEGORIES, "any"), k -> new ArrayList<>()).add(video);
+        }
+
+        List<String> categories = categories();
+        Map<String, Bucket> buckets = new HashMap<>();
+        List<Map<String, Object>> directory = new ArrayList<>();
+        for (String category : categories) {
+            for (String duration : DURATIONS) {
+                List<CatalogVideo> videos = grouped.getOrDefault(bucketKey(category, duration), List.of());
+                CatalogVideo[] sorted = videos.toArray(new CatalogVideo[0]);
+                Arrays.sort(sorted, ORDER);
+                Bucket bucket = new Bucket(category, duration, sorted);
+                bucket.preSerialize(this);
+                buckets.put(bucketKey(category, duration), bucket);
+
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("uri", URI_PREFIX + "/" + category + "/" + duration);
+                entry.put("category", category);
+                entry.put("duration", duration);
+                entry.put("total", sorted.length);
+                directory.add(entry);
+            }
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("source", "curated-channels");
+        root.put("note", "Só vídeos dos canais curados (youtube.channels.ids); resultados de busca "
+            + "não são indexados. Sem canais configurados, os buckets ficam vazios.");
+        root.put("pageSize", pageSize);
+        root.put("buckets", directory);
+
+        log.info("📚 Índice de resources reconstruído: {} vídeos em {}ms",
+            buckets.get(bucketKey(ALL_CATEGORIES, "any")).videos.length, System.currentTimeMillis() - start);
+        return new Snapshot(version, categories, buckets, serialize(root));
+    }
+
+    private String serializePage(Bucket bucket, int start) {
+        int end = Math.min(bucket.videos.length, start + pageSize);
+        List<Map<String, Object>> videos = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            CatalogVideo video = bucket.videos[i];
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("videoId", video.getVideoId());
+            item.put("title", video.getTitle());
+            item.put("channelTitle", video.getChannelTitle());
+            item.put("durationSeconds", video.getDurationSeconds());
+            item.put("thumbnailUrl", VideoConverter.thumbnailUrl(video.getVideoId()));
+            item.put("contentUrl", VideoConverter.contentUrl(video.getVideoId()));
+            videos.add(item);
+        }
+        String nextCursor = end < bucket.videos.length ? encodeCursor(bucket.videos[end - 1]) : null;
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("category", bucket.category);
+        page.put("duration", bucket.duration);
+        page.put("total", bucket.videos.length);
+        page.put("videos", videos);
+        page.put("nextCursor", nextCursor);
+        page.put("next", nextCursor != null
+            ? URI_PREFIX + "/" + bucket.category + "/" + bucket.duration + "/" + nextCursor
+            : null);
+        return serialize(page);
+    }
+
+    private String serialize(Object value) {
+        try {
+            return responseWriter.write(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar página do catálogo", e);
+        }
+    }
+
+    private static String encodeCursor(CatalogVideo last) {
+        String key = last.getDurationSeconds() + ":" + last.getVideoId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Chave "duração:videoId" do último vídeo entregue
+     */
+    private static String decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(':');
+            Integer.parseInt(key.substring(0, separator));
+            return key;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static String durationBucket(int seconds) {
+        if (seconds < SHORT_MAX_SECONDS) return "short";
+        if (seconds <= MEDIUM_MAX_SECONDS) return "medium";
+        return "long";
+    }
+
+    private static String bucketKey(String category, String duration) {
+        return category + '/' + duration;
+    }
+
+    /**
+     * Versão imutável do índice
+     */
+    private static final class Snapshot {
+        private final long version;
+        private final List<String> categories;
+        private final Map<String, Bucket> buckets;
+        private final String directory;
+
+        private Snapshot(long version, List<String> categories, Map<String, Bucket> buckets, String directory) {
+            this.version = version;
+            this.categories = categories;
+            this.buckets = buckets;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Vídeos de uma categoria e faixa de duração, ordenados, com páginas pré-serializadas
+     */
+    private static final class Bucket {
+        private final String category;
+        private final String duration;
+        private final CatalogVideo[] videos;
+        private String[] pages = new String[0];
+
+        private Bucket(String category, String duration, CatalogVideo[] videos) {
+            this.category = category;
+            this.duration = duration;
+            this.videos = videos;
+        }
+
+        private void preSerialize(CatalogResourceIndex index) {
+            int count = Math.max(1, (videos.length + index.pageSize - 1) / index.pageSize);
+            pages = new String[count];
+            for (int page = 0; page < count; page++) {
+                pages[page] = index.serializePage(this, page * index.pageSize);
+            }
+        }
+
+        /**
+         * Página começando em {@code start}: pré-serializada quando alinhada, montada na hora caso contrário
+         * (cursor emitido por uma versão anterior do índice)
+         */
+        private String page(int start, CatalogResourceIndex index) {
+            if (start % index.pageSize == 0 && start / index.pageSize < pages.length) {
+                return pages[start / index.pageSize];
+            }
+            return index.serializePage(this, Math.min(start, videos.length));
+        }
+
+        /**
+         * Posição do primeiro vídeo depois do cursor (busca binária)
+         */
+        private int indexAfter(int durationSeconds, String videoId) {
+            int low = 0;
+            int high = videos.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                CatalogVideo video = videos[mid];
+                int compare = video.getDurationSeconds() != durationSeconds
+                    ? Integer.compare(video.getDurationSeconds(), durationSeconds)
+                    : video.getVideoId().compareTo(videoId);
+                if (compare <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
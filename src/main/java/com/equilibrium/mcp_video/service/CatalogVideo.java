@@ -0,0 +1,32 @@
+package com.equilibrium.mcp_video.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Registro compacto de um vídeo guardado em memória (catálogo, cache de busca,
+ * conjuntos de candidatos)
+ *
+ * Canal e tags são instâncias canônicas do dicionário do {@link VideoConverter}
+ * (compartilhadas entre todos os vídeos), a descrição é truncada e as URLs de
+ * conteúdo e thumbnail não são guardadas: saem do videoId. O vetor semântico
+ * é quantizado em 1 byte por dimensão (256 bytes em vez de 1 KB) e a
+ * categoria vem da conversão, calculada antes do truncamento da descrição.
+ * O RecommendedVideo completo só é montado na hora da resposta
+ * ({@link VideoConverter#materialize}). Imutável depois de criado.
+ */
+@Getter
+@AllArgsConstructor
+public final class CatalogVideo {
+
+    private final String videoId;
+    private final String title;
+    private final String description;
+    private final String channelTitle;
+    private final int durationSeconds;
+    private final String[] tags;
+    private final byte[] features;  // Vetor semântico quantizado (só no modo semantic), nunca alterado
+    private final float featureScale; // Multiplicador que reconstrói cada dimensão do vetor
+    private final String language;  // Código de 2 letras do áudio/metadados, null se o canal não informa
+    private final String category;  // Categoria pela descrição completa, null se o vídeo não passou pela conversão
+}
@@ -0,0 +1,140 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.client.PlaylistPage;
+import com.equilibrium.mcp_video.client.YouTubeClient;
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.google.api.services.youtube.model.Video;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingestão incremental de canais curados de bem-estar
+ *
+ * Lê a playlist de uploads de cada canal (playlistItems.list, 1 unidade de
+ * quota por página, contra 100 de um search.list), para ao encontrar o
+ * último vídeo já ingerido e usa ETag para não reprocessar a primeira
+ * página quando nada mudou. Os vídeos novos são enriquecidos com
+ * videos.list em lotes de 50 e entram no {@link VideoCatalog}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChannelIngestionService {
+
+    private static final int VIDEOS_PER_BATCH = 50; // Limite de IDs por videos.list
+
+    private final YouTubeClient youTubeClient;
+    private final VideoConverter videoConverter;
+    private final VideoCatalog videoCatalog;
+
+    /**
+     * IDs dos canais curados (UC...), separados por vírgula
+     */
+    @Value("${youtube.channels.ids:}")
+    private List<String> channelIds;
+
+    @Value("${youtube.channels.max-pages-per-run:4}")
+    private int maxPagesPerRun;
+
+    private final Map<String, ChannelState> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Busca uploads novos de todos os canais configurados
+     */
+    @Scheduled(fixedDelayString = "${youtube.channels.refresh-interval:PT6H}",
+               initialDelayString = "${youtube.channels.initial-delay:PT1M}")
+    public void refreshChannels() {
+        if (channelIds == null || channelIds.isEmpty() || !youTubeClient.isConfigured()) {
+            return;
+        }
+        int ingested = 0;
+        for (String channelId : channelIds) {
+            if (channelId.isBlank()) {
+                continue;
+            }
+            try {
+                ingested += refreshChannel(channelId.trim());
+            } catch (Exception e) {
+                log.warn("⚠️ Erro ao ingerir canal {}", channelId, e);
+            }
+        }
+        log.info("📺 Ingestão de canais concluída: {} vídeos novos, catálogo com {} vídeos",
+            ingested, videoCatalog.size());
+    }
+
+    private int refreshChannel(String channelId) throws Exception {
+        ChannelState state = channels.computeIfAbsent(channelId, id -> new ChannelState());
+        if (state.uploadsPlaylistId == null) {
+            state.uploadsPlaylistId = youTubeClient.getUploadsPlaylistId(channelId);
+            if (state.uploadsPlaylistId == null) {
+                log.warn("⚠️ Canal {} não encontrado", channelId);
+                return 0;
+            }
+        }
+
+        // Percorrer a playlist (mais recentes primeiro) até encontrar o último vídeo já ingerido
+        List<String> newVideoIds = new ArrayList<>();
+        String pageToken = null;
+        String firstPageEtag = null;
+        String newestVideoId = null;
+        boolean reachedKnown = false;
+        for (int page = 0; page < maxPagesPerRun && !reachedKnown; page++) {
+            PlaylistPage playlistPage = youTubeClient.getPlaylistItems(
+                state.uploadsPlaylistId, pageToken, page == 0 ? state.firstPageEtag : null);
+            if (playlistPage.isNotModified()) {
+                return 0; // Primeira página igual: nenhum upload novo
+            }
+            if (page == 0) {
+                firstPageEtag = playlistPage.getEtag();
+                newestVideoId = playlistPage.getVideoIds().isEmpty() ? null : playlistPage.getVideoIds().get(0);
+            }
+            for (String videoId : playlistPage.getVideoIds()) {
+                if (videoId.equals(state.newestVideoId)) {
+                    reachedKnown = true;
+                    break;
+                }
+                if (!videoCatalog.contains(videoId)) {
+                    newVideoIds.add(videoId);
+                }
+            }
+            pageToken = playlistPage.getNextPageToken();
+            if (pageToken == null) {
+                break;
+            }
+        }
+
+        // Enriquecer em lotes de 50 (videos.list)
+        List<RecommendedVideo> converted = new ArrayList<>();
+        for (int from = 0; from < newVideoIds.size(); from += VIDEOS_PER_BATCH) {
+            List<String> batch = newVideoIds.subList(from, Math.min(from + VIDEOS_PER_BATCH, newVideoIds.size()));
+            List<Video> videos = youTubeClient.getVideos(batch);
+            converted.addAll(videoConverter.convertAll(videos));
+        }
+        videoCatalog.putAll(converted);
+
+        // Uploads além de max-pages-per-run na primeira execução ficam de fora (backfill limitado)
+        if (newestVideoId != null) {
+            state.newestVideoId = newestVideoId;
+        }
+        state.firstPageEtag = firstPageEtag;
+        log.debug("📺 Canal {}: {} vídeos novos", channelId, converted.size());
+        return converted.size();
+    }
+
+    /**
+     * Estado incremental por canal (acessado apenas pela thread do scheduler)
+     */
+    private static class ChannelState {
+        private String uploadsPlaylistId;
+        private String firstPageEtag;
+        private String newestVideoId;
+    }
+}
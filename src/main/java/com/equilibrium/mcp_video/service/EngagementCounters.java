@@ -0,0 +1,275 @@
+package com.equilibrium.mcp_video.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Popularidade por vídeo a partir de eventos de play e skip do app
+ *
+ * A ingestão só incrementa contadores LongAdder (células por thread, sem lock
+ * nem CAS disputado), então dezenas de milhares de eventos por segundo não
+ * competem com o caminho de recomendação. Um job periódico dobra os
+ * contadores em totais com decaimento exponencial (meia-vida configurável);
+ * o ranking lê apenas esses totais já dobrados. Vídeos cujos totais decaíram
+ * a quase zero saem do mapa, e os totais são gravados em snapshot no disco.
+ *
+ * Cada usuário conta no máximo um evento (play ou skip) por vídeo a cada
+ * intervalo de fold: repetir o mesmo evento em laço não empurra um vídeo
+ * para o topo do ranking de todos. O conjunto de pares usuário/vídeo do
+ * intervalo é limitado; cheio, novos eventos são recusados até o fold.
+ */
+@Slf4j
+@Component
+public class EngagementCounters {
+
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final double FORGET_BELOW = 0.05; // Totais decaídos abaixo disso são descartados
+
+    @Value("${youtube.engagement.enabled:true}")
+    private boolean enabled;
+
+    @Value("${youtube.engagement.half-life:P7D}")
+    private Duration halfLife;
+
+    @Value("${youtube.engagement.max-videos:200000}")
+    private int maxVideos;
+
+    /**
+     * Eventos equivalentes a "nenhuma evidência": suaviza a popularidade de vídeos com poucos eventos
+     */
+    @Value("${youtube.engagement.prior-events:10}")
+    private double priorEvents;
+
+    @Value("${youtube.engagement.snapshot-file:}")
+    private String snapshotFile;
+
+    /**
+     * Limite de pares usuário/vídeo com evento no intervalo de fold
+     */
+    @Value("${youtube.engagement.max-pending-events:500000}")
+    private int maxPendingEvents;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile Set<String> recentEvents = ConcurrentHashMap.newKeySet();
+    private volatile long lastFold = System.currentTimeMillis();
+
+    /**
+     * Registra um play (o usuário abriu o vídeo recomendado)
+     *
+     * @return false se o evento não foi contado (repetido no intervalo, usuário ausente ou limite cheio)
+     */
+    public boolean recordPlay(String userId, String videoId) {
+        Counter counter = counterFor(userId, videoId);
+        if (counter == null) {
+            return false;
+        }
+        counter.plays.increment();
+        return true;
+    }
+
+    /**
+     * Registra um skip (o usuário pulou ou abandonou o vídeo recomendado)
+     *
+     * @return false se o evento não foi contado (repetido no intervalo, usuário ausente ou limite cheio)
+     */
+    public boolean recordSkip(String userId, String videoId) {
+        Counter counter = counterFor(userId, videoId);
+        if (counter == null) {
+            return false;
+        }
+        counter.skips.increment();
+        return true;
+    }
+
+    /**
+     * Popularidade decaída em [-1, 1]: (plays - skips) / (plays + skips + prior)
+     * Zero para vídeos sem eventos; só enxerga eventos já dobrados pelo job periódico
+     */
+    public double popularity(String videoId) {
+        if (!enabled || videoId == null) {
+            return 0;
+        }
+        Counter counter = counters.get(videoId);
+        if (counter == null) {
+            return 0;
+        }
+        double plays = counter.decayedPlays;
+        double skips = counter.decayedSkips;
+        return (plays - skips) / (plays + skips + priorEvents);
+    }
+
+    /**
+     * Número de vídeos com eventos em memória
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Dobra os eventos do intervalo nos totais decaídos (única thread que escreve os totais)
+     */
+    @Scheduled(fixedDelayString = "${youtube.engagement.fold-interval:PT1M}",
+               initialDelayString = "${youtube.engagement.fold-interval:PT1M}")
+    public void fold() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        double decay = Math.pow(0.5, (double) (now - lastFold) / halfLife.toMillis());
+        lastFold = now;
+        recentEvents = ConcurrentHashMap.newKeySet(); // Novo intervalo: cada usuário pode contar de novo
+
+        long events = 0;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long plays = counter.plays.sumThenReset();
+            long skips = counter.skips.sumThenReset();
+            events += plays + skips;
+            counter.decayedPlays = counter.decayedPlays * decay + plays;
+            counter.decayedSkips = counter.decayedSkips * decay + skips;
+            if (counter.decayedPlays + counter.decayedSkips < FORGET_BELOW && pending(counter) == 0) {
+                forget(entry.getKey(), counter);
+            }
+        }
+        if (events > 0) {
+            log.debug("📊 Engajamento dobrado: {} eventos, {} vídeos", events, counters.size());
+        }
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!enabled || snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("⚠️ Snapshot de engajamento com versão desconhecida, ignorando: {}", path);
+                return;
+            }
+            long savedAt = in.readLong();
+            double decay = Math.pow(0.5, (double) Math.max(0, System.currentTimeMillis() - savedAt) / halfLife.toMillis());
+            int videos = in.readInt();
+            for (int v = 0; v < videos; v++) {
+                String videoId = in.readUTF();
+                double plays = in.readDouble() * decay;
+                double skips = in.readDouble() * decay;
+                if (plays + skips >= FORGET_BELOW && counters.size() < maxVideos) {
+                    Counter counter = new Counter();
+                    counter.decayedPlays = plays;
+                    counter.decayedSkips = skips;
+                    counters.put(videoId, counter);
+                }
+            }
+            log.info("📂 Engajamento carregado: {} vídeos", counters.size());
+        } catch (IOException e) {
+            log.warn("⚠️ Não foi possível carregar snapshot de engajamento: {}", path, e);
+        }
+    }
+
+    /**
+     * Grava snapshot periódico em disco (arquivo temporário + move atômico)
+     * No desligamento dobra antes os eventos pendentes
+     */
+    @Scheduled(fixedDelayString = "${youtube.engagement.snapshot-interval:PT5M}",
+               initialDelayString = "${youtube.engagement.snapshot-interval:PT5M}")
+    public void writeSnapshot() {
+        if (!enabled || snapshotFile == null || snapshotFile.isBlank() || counters.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(lastFold);
+                List<Map.Entry<String, Counter>> entries = new ArrayList<>(counters.entrySet());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Counter> entry : entries) {
+                    out.writeUTF(entry.getKey());
+                    out.writeDouble(entry.getValue().decayedPlays);
+                    out.writeDouble(entry.getValue().decayedSkips);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("💾 Snapshot de engajamento gravado: {} vídeos", counters.size());
+        } catch (IOException e) {
+            log.warn("⚠️ Erro ao gravar snapshot de engajamento: {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fold();
+        writeSnapshot();
+    }
+
+    /**
+     * Remove um contador esquecido; se um evento chegou durante a remoção, ele volta ao mapa
+     */
+    private void forget(String videoId, Counter counter) {
+        if (!counters.remove(videoId, counter) || pending(counter) == 0) {
+            return;
+        }
+        Counter current = counters.putIfAbsent(videoId, counter);
+        if (current != null) {
+            current.plays.add(counter.plays.sumThenReset());
+            current.skips.add(counter.skips.sumThenReset());
+        }
+    }
+
+    private static long pending(Counter counter) {
+        return counter.plays.sum() + counter.skips.sum();
+    }
+
+    private Counter counterFor(String userId, String videoId) {
+        if (!enabled || videoId == null || userId == null || userId.isBlank()) {
+            return null;
+        }
+        Set<String> recent = recentEvents;
+        if (recent.size() >= maxPendingEvents || !recent.add(userId + '|' + videoId)) {
+            return null;
+        }
+        Counter counter = counters.get(videoId);
+        if (counter != null) {
+            return counter;
+        }
+        if (counters.size() >= maxVideos) {
+            return null; // Mapa cheio: vídeo novo fica sem contagem até o próximo fold liberar espaço
+        }
+        return counters.computeIfAbsent(videoId, id -> new Counter());
+    }
+
+    /**
+     * Contadores de um vídeo: eventos do intervalo (LongAdder) e totais decaídos (escritos só pelo fold)
+     */
+    private static final class Counter {
+        private final LongAdder plays = new LongAdder();
+        private final LongAdder skips = new LongAdder();
+        private volatile double decayedPlays;
+        private volatile double decayedSkips;
+    }
+}
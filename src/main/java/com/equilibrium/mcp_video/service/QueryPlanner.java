@@ -0,0 +1,167 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
+import com.equilibrium.mcp_video.rules.QueryOption;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.equilibrium.mcp_video.rules.RuleOutcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Planejador de buscas: escolhe quais queries do resultado das regras emitir
+ *
+ * Cada query cobre sinais do perfil (as entradas de regras que a geraram) e
+ * uma categoria de vídeo. A seleção é gulosa por ganho marginal / custo:
+ * ganho é o peso dos sinais e categorias ainda não cobertos, descontado pelo
+ * rendimento aprendido da query; custo é o de uma busca real (search.list +
+ * videos.list) ou quase zero se a página já está em cache. O plano para
+ * quando nenhuma query restante acrescenta cobertura: repetir um sinal já
+ * coberto não paga o custo, e o over-fetch do serviço dimensiona a página
+ * das poucas queries escolhidas para chegar ao número de candidatos.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryPlanner {
+
+    private final SearchResultCache searchResultCache;
+    private final QueryYieldTracker queryYieldTracker;
+    private final RecommendationRuleEngine ruleEngine;
+
+    @Value("${youtube.planner.max-queries:5}")
+    private int maxQueries;
+
+    /**
+     * Custo em unidades de quota de uma busca real (search.list + videos.list)
+     */
+    @Value("${youtube.planner.live-cost:101}")
+    private double liveCost;
+
+    /**
+     * Custo relativo de uma query já em cache (CPU e cópia dos vídeos)
+     */
+    @Value("${youtube.planner.cached-cost:1}")
+    private double cachedCost;
+
+    /**
+     * Peso de cobrir uma categoria de vídeo ainda sem query no plano
+     */
+    @Value("${youtube.planner.category-weight:1}")
+    private double categoryWeight;
+
+    /**
+     * Queries a emitir, na ordem em que devem ser buscadas
+     */
+    public List<String> plan(RuleOutcome rules, VideoRecommendationRequest request, String duration) {
+        Map<String, Candidate> candidates = new LinkedHashMap<>();
+        for (QueryOption option : rules.getQueryOptions()) {
+            candidates.computeIfAbsent(option.getQuery(), query -> new Candidate(query)).add(option);
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Mesmo tamanho de página que o serviço vai usar (página = pedido / queries do plano).
+        // Se a cobertura fecha com menos queries, a página cresce: reestima e replaneja uma vez
+        int target = request.getMaxResults() != null ? request.getMaxResults() : 10;
+        int planSize = Math.min(maxQueries, candidates.size());
+        estimate(candidates.values(), request, duration, target, planSize);
+        List<String> plan = cover(candidates.values(), planSize);
+        if (!plan.isEmpty() && plan.size() < planSize) {
+            estimate(candidates.values(), request, duration, target, plan.size());
+            plan = cover(candidates.values(), planSize);
+        }
+        return plan;
+    }
+
+    /**
+     * Custo e rendimento de cada query para a página que ela teria num plano de planSize queries
+     */
+    private void estimate(Iterable<Candidate> candidates, VideoRecommendationRequest request, String duration,
+                          int target, int planSize) {
+        int wantedPerQuery = (int) Math.ceil((double) target / planSize);
+        for (Candidate candidate : candidates) {
+            int pageSize = queryYieldTracker.pageSize(candidate.query, wantedPerQuery);
+            candidate.cost = searchResultCache.contains(candidate.query, duration, request.getLanguage(), pageSize)
+                ? cachedCost
+                : liveCost;
+            candidate.yieldFactor = Math.min(1.0,
+                queryYieldTracker.expectedSurvivors(candidate.query, pageSize) / wantedPerQuery);
+            if (candidate.category == null) {
+                candidate.category = ruleEngine.categorize(candidate.query, null, request.getLanguage());
+            }
+        }
+    }
+
+    /**
+     * Cobertura gulosa: maior ganho marginal por custo, até o limite ou até nenhuma query
+     * restante cobrir sinal ou categoria nova
+     */
+    private List<String> cover(Iterable<Candidate> candidates, int planSize) {
+        List<String> plan = new ArrayList<>(planSize);
+        Set<Candidate> planned = new HashSet<>();
+        Set<Integer> coveredGroups = new HashSet<>();
+        Set<String> coveredCategories = new HashSet<>();
+        while (plan.size() < planSize) {
+            Candidate best = null;
+            double bestRatio = 0;
+            for (Candidate candidate : candidates) {
+                if (planned.contains(candidate)) {
+                    continue;
+                }
+                double ratio = candidate.gain(coveredGroups, coveredCategories, categoryWeight) / candidate.cost;
+                if (ratio > bestRatio) {
+                    best = candidate;
+                    bestRatio = ratio;
+                }
+            }
+            if (best == null) {
+                break; // Perfil coberto: as restantes não trazem ganho
+            }
+            planned.add(best);
+            plan.add(best.query);
+            coveredGroups.addAll(best.weights.keySet());
+            coveredCategories.add(best.category);
+        }
+        return plan;
+    }
+
+    /**
+     * Query candidata com os sinais que cobre
+     */
+    private static final class Candidate {
+        private final String query;
+        private final Map<Integer, Double> weights = new LinkedHashMap<>();
+        private String category;
+        private double cost;
+        private double yieldFactor;
+
+        private Candidate(String query) {
+            this.query = query;
+        }
+
+        private void add(QueryOption option) {
+            weights.merge(option.getGroup(), option.getWeight(), Math::max);
+        }
+
+        private double gain(Set<Integer> coveredGroups, Set<String> coveredCategories, double categoryWeight) {
+            double gain = 0;
+            for (Map.Entry<Integer, Double> signal : weights.entrySet()) {
+                if (!coveredGroups.contains(signal.getKey())) {
+                    gain += signal.getValue();
+                }
+            }
+            if (!coveredCategories.contains(category)) {
+                gain += categoryWeight;
+            }
+            return gain * yieldFactor;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.equilibrium.mcp_video.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aprende, por query, quantos resultados de search.list sobrevivem à
+ * deduplicação e chegam de fato na resposta final
+ *
+ * O rendimento (sobreviventes / buscados) é uma média móvel exponencial por
+ * query. Com ele o serviço dimensiona cada página de search.list e para de
+ * emitir queries quando os sobreviventes esperados já cobrem o pedido,
+ * reduzindo payload, chamadas de detalhes e parse.
+ */
+@Component
+public class QueryYieldTracker {
+
+    private static final int MAX_PAGE_SIZE = 50; // Limite da YouTube API
+
+    @Value("${youtube.overfetch.prior-yield:0.5}")
+    private double priorYield;
+
+    @Value("${youtube.overfetch.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${youtube.overfetch.safety-factor:1.25}")
+    private double safetyFactor;
+
+    @Value("${youtube.overfetch.min-page-size:3}")
+    private int minPageSize;
+
+    @Value("${youtube.overfetch.min-yield:0.05}")
+    private double minYield;
+
+    private final Map<String, Double> yields = new ConcurrentHashMap<>();
+
+    /**
+     * Tamanho de página para que a query entregue cerca de {@code wanted} sobreviventes
+     */
+    public int pageSize(String query, int wanted) {
+        double yield = yieldOf(query);
+        int size = (int) Math.ceil(wanted / yield * safetyFactor);
+        return Math.max(minPageSize, Math.min(MAX_PAGE_SIZE, size));
+    }
+
+    /**
+     * Sobreviventes esperados para {@code fetched} resultados desta query
+     */
+    public double expectedSurvivors(String query, int fetched) {
+        return fetched * yieldOf(query);
+    }
+
+    /**
+     * Registra quantos dos resultados buscados chegaram na resposta final
+     */
+    public void record(String query, int fetched, int survived) {
+        if (fetched <= 0) {
+            return;
+        }
+        double observed = Math.min(1.0, (double) survived / fetched);
+        yields.merge(query, observed, (previous, sample) -> previous + smoothing * (sample - previous));
+    }
+
+    private double yieldOf(String query) {
+        return Math.max(minYield, yields.getOrDefault(query, priorYield));
+    }
+}
@@ -0,0 +1,149 @@
+package com.equilibrium.mcp_video.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle de admissão das recomendações
+ *
+ * Limita quantas recomendações executam ao mesmo tempo, com uma fila de
+ * espera curta e limitada. Requests que podem ser respondidos só com cache
+ * usam uma fila prioritária própria e não esperam atrás de chamadas bloqueadas
+ * na YouTube API. Sem vaga, o request é recusado na hora em vez de acumular
+ * threads e memória, e a latência dos admitidos se mantém estável.
+ *
+ * Respostas degradadas e recusas são só contadas no caminho do request e
+ * resumidas num WARN periódico: sob sobrecarga, um WARN por request
+ * inundaria a fila do appender assíncrono, que descarta eventos de
+ * qualquer nível quando cheia.
+ */
+@Slf4j
+@Component
+public class RecommendationAdmission {
+
+    /**
+     * Fila de execução: LIVE chama a YouTube API, CACHE responde só com dados locais
+     */
+    public enum Lane { LIVE, CACHE }
+
+    @Value("${youtube.admission.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${youtube.admission.max-queued:16}")
+    private int maxQueued;
+
+    @Value("${youtube.admission.max-wait:PT0.5S}")
+    private Duration maxWait;
+
+    @Value("${youtube.admission.cache-max-concurrent:32}")
+    private int cacheMaxConcurrent;
+
+    private Semaphore livePermits;
+    private Semaphore cachePermits;
+    private final AtomicInteger liveQueued = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final LongAdder degradedServed = new LongAdder();
+    private final LongAdder degradedEmpty = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        livePermits = new Semaphore(maxConcurrent, true);
+        cachePermits = new Semaphore(cacheMaxConcurrent);
+    }
+
+    /**
+     * Tenta obter vaga na fila indicada; false significa sobrecarga
+     * Quem recebe true deve chamar {@link #release(Lane)} ao terminar
+     */
+    public boolean tryAcquire(Lane lane) {
+        if (lane == Lane.CACHE) {
+            return cachePermits.tryAcquire();
+        }
+        if (livePermits.tryAcquire()) {
+            return true;
+        }
+        if (liveQueued.incrementAndGet() > maxQueued) {
+            liveQueued.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        try {
+            boolean acquired = livePermits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                rejected.incrementAndGet();
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            liveQueued.decrementAndGet();
+        }
+    }
+
+    public void release(Lane lane) {
+        if (lane == Lane.CACHE) {
+            cachePermits.release();
+        } else {
+            livePermits.release();
+        }
+    }
+
+    /**
+     * Tempo sugerido para o cliente tentar de novo
+     */
+    public long retryAfterMs() {
+        return Math.max(1000L, maxWait.toMillis() * 2);
+    }
+
+    /**
+     * Registra uma resposta degradada do cache (com vídeos ou vazia, que vira recusa)
+     */
+    public void recordDegraded(boolean hasVideos) {
+        if (hasVideos) {
+            degradedServed.increment();
+        } else {
+            degradedEmpty.increment();
+        }
+    }
+
+    /**
+     * Registra uma recusa por sobrecarga devolvida ao cliente
+     */
+    public void recordOverloaded() {
+        overloaded.increment();
+    }
+
+    /**
+     * Resumo da sobrecarga no intervalo; não loga nada quando não houve sobrecarga
+     */
+    @Scheduled(fixedDelayString = "${youtube.admission.report-interval:PT1M}",
+               initialDelayString = "${youtube.admission.report-interval:PT1M}")
+    public void report() {
+        long served = degradedServed.sumThenReset();
+        long empty = degradedEmpty.sumThenReset();
+        long refused = overloaded.sumThenReset();
+        if (served + empty + refused == 0) {
+            return;
+        }
+        log.warn("🚦 [MCP Tool] Sobrecarga no intervalo: {} respostas degradadas do cache, {} degradadas vazias, "
+            + "{} recusados (total recusados na admissão: {})", served, empty, refused, rejected.get());
+    }
+
+    /**
+     * Total de requests recusados desde a subida (para logs e diagnóstico)
+     */
+    public int rejectedCount() {
+        return rejected.get();
+    }
+}
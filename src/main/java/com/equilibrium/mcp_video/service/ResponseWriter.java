@@ -0,0 +1,131 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse;
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Serialização JSON das respostas dos tools
+ *
+ * Os writers são montados uma vez a partir do ObjectMapper do Spring e
+ * compartilhados entre threads (ObjectWriter é imutável). No formato compact
+ * cada vídeo sai sem thumbnailUrl e contentUrl (derivados do videoId), com a
+ * descrição truncada e poucas tags, escrito direto no JsonGenerator: menos
+ * tokens para o LLM e menos bytes e CPU por resposta.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseWriter {
+
+    public static final String FULL = "full";
+    public static final String COMPACT = "compact";
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Formato padrão quando o prompt não pede um (full ou compact)
+     */
+    @Value("${youtube.response.format:full}")
+    private String defaultFormat;
+
+    @Value("${youtube.response.compact.description-chars:120}")
+    private int compactDescriptionChars;
+
+    @Value("${youtube.response.compact.max-tags:3}")
+    private int compactMaxTags;
+
+    private ObjectWriter writer;
+    private ObjectWriter fullWriter;
+    private ObjectWriter compactWriter;
+
+    @PostConstruct
+    void init() {
+        writer = objectMapper.writer();
+        fullWriter = objectMapper.writerFor(VideoRecommendationResponse.class);
+        SimpleModule compactModule = new SimpleModule("compact-response")
+            .addSerializer(RecommendedVideo.class, new CompactVideoSerializer());
+        compactWriter = objectMapper.copy()
+            .registerModule(compactModule)
+            .writerFor(VideoRecommendationResponse.class);
+    }
+
+    public String defaultFormat() {
+        return COMPACT.equalsIgnoreCase(defaultFormat) ? COMPACT : FULL;
+    }
+
+    /**
+     * JSON da resposta no formato pedido (null usa o formato padrão)
+     */
+    public String write(VideoRecommendationResponse response, String format) throws JsonProcessingException {
+        String effective = format != null ? format : defaultFormat();
+        return (COMPACT.equals(effective) ? compactWriter : fullWriter).writeValueAsString(response);
+    }
+
+    /**
+     * JSON de um valor qualquer (respostas de erro, páginas do catálogo)
+     */
+    public String write(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    /**
+     * Vídeo no formato compact, campo a campo, sem montar mapas intermediários
+     */
+    private final class CompactVideoSerializer extends JsonSerializer<RecommendedVideo> {
+
+        @Override
+        public void serialize(RecommendedVideo video, JsonGenerator gen, SerializerProvider serializers)
+                throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("videoId", video.getVideoId());
+            gen.writeStringField("title", video.getTitle());
+            String description = video.getDescription();
+            if (description != null && !description.isEmpty()) {
+                gen.writeStringField("description", truncate(description, compactDescriptionChars));
+            }
+            if (video.getChannelTitle() != null) {
+                gen.writeStringField("channelTitle", video.getChannelTitle());
+            }
+            if (video.getDurationSeconds() != null) {
+                gen.writeNumberField("durationSeconds", video.getDurationSeconds());
+            }
+            if (video.getMatchScore() != null) {
+                gen.writeNumberField("matchScore", video.getMatchScore());
+            }
+            gen.writeStringField("reason", video.getReason());
+            List<String> tags = video.getTags();
+            if (tags != null && !tags.isEmpty() && compactMaxTags > 0) {
+                gen.writeArrayFieldStart("tags");
+                for (int i = 0; i < Math.min(compactMaxTags, tags.size()); i++) {
+                    gen.writeString(tags.get(i));
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Corta no último espaço antes do limite, para não quebrar palavras
+     */
+    private static String truncate(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > maxChars / 2 ? cut : maxChars) + "…";
+    }
+}
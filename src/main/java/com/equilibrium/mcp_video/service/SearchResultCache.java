@@ -0,0 +1,159 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Cache LRU com TTL dos resultados de busca (search.list + videos.list)
+ *
+ * Particionado por idioma: cada idioma tem seu próprio LRU (com lock e limite
+ * próprios), então o tráfego em português não expulsa as buscas em inglês e
+ * espanhol. Dentro do idioma a chave é query + filtro de duração. Uma entrada atende
+ * pedidos de até {@code fetchedSize} resultados, ou qualquer tamanho se a
+ * API devolveu menos do que foi pedido (a query se esgotou). Os vídeos ficam
+ * no formato compacto ({@link CatalogVideo}).
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchResultCache {
+
+    private final VideoConverter videoConverter;
+
+    @Value("${youtube.cache.search-ttl:PT6H}")
+    private Duration ttl;
+
+    /**
+     * Limite de entradas por idioma
+     */
+    @Value("${youtube.cache.max-entries:2000}")
+    private int maxEntries;
+
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    /**
+     * DTOs novos dos vídeos em cache, ou null se não houver entrada válida para o tamanho pedido
+     */
+    public List<RecommendedVideo> get(String query, String duration, String language, int pageSize) {
+        Entry entry = segment(language).lookup(key(query, duration));
+        if (entry == null || !entry.covers(pageSize)) {
+            return null;
+        }
+        return entry.videos.stream()
+            .limit(pageSize)
+            .map(videoConverter::materialize)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Indica se há entrada válida (sem copiar os vídeos)
+     */
+    public boolean contains(String query, String duration, String language, int pageSize) {
+        Entry entry = segment(language).lookup(key(query, duration));
+        return entry != null && entry.covers(pageSize);
+    }
+
+    public void put(String query, String duration, String language, int requestedSize, List<CatalogVideo> videos) {
+        Entry entry = new Entry(List.copyOf(videos), requestedSize, System.currentTimeMillis() + ttl.toMillis());
+        segment(language).put(key(query, duration), entry, maxEntries);
+    }
+
+    /**
+     * Total de entradas em todos os idiomas
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segment(String language) {
+        return segments.computeIfAbsent(String.valueOf(language), k -> new Segment());
+    }
+
+    private static String key(String query, String duration) {
+        return query + '|' + duration;
+    }
+
+    /**
+     * LRU das buscas de um idioma
+     */
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+        private Entry lookup(String key) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(key);
+                if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Uma página menor não substitui uma maior ainda válida da mesma busca: quem
+         * precisasse da página maior voltaria a buscar ao vivo
+         */
+        private void put(String key, Entry entry, int maxEntries) {
+            lock.lock();
+            try {
+                Entry existing = entries.get(key);
+                if (existing != null && existing.requestedSize > entry.requestedSize
+                        && existing.expiresAt >= System.currentTimeMillis()) {
+                    return;
+                }
+                entries.put(key, entry);
+                if (entries.size() > maxEntries) {
+                    Iterator<String> eldest = entries.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final List<CatalogVideo> videos;
+        private final int requestedSize;
+        private final long expiresAt;
+
+        private Entry(List<CatalogVideo> videos, int requestedSize, long expiresAt) {
+            this.videos = videos;
+            this.requestedSize = requestedSize;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean covers(int pageSize) {
+            return pageSize <= requestedSize || videos.size() < requestedSize;
+        }
+    }
+}
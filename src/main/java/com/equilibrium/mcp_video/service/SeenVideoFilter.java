@@ -0,0 +1,421 @@
+package com.equilibrium.mcp_video.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Filtro "já visto" por usuário, usado pelo ranking para rebaixar vídeos
+ * que o usuário já recebeu em recomendações anteriores.
+ *
+ * Cada usuário ocupa 272 bytes dentro de uma arena de long[] alocada em
+ * blocos, sem objetos por vídeo: um cabeçalho (geração atual e último acesso)
+ * e duas gerações de Bloom filter de 1024 bits. Bits são gravados com CAS
+ * (VarHandle) na geração atual e consultados nas duas, então leituras e
+ * escritas não usam lock. Quando a geração atual passa de 50% de ocupação
+ * ela vira a anterior e a anterior é zerada para virar a atual: o lote que
+ * causou a rotação (e os gravados em paralelo) continua visível, e os vídeos
+ * mais antigos voltam a aparecer.
+ *
+ * Usuários ociosos além do TTL, ou os menos recentes quando a arena enche,
+ * são removidos e seus slots reaproveitados.
+ */
+@Slf4j
+@Component
+public class SeenVideoFilter {
+
+    private static final int GENERATION_WORD = 0;                 // Contador de rotações (geração atual = bit 0)
+    private static final int LAST_ACTIVE_WORD = 1;                // Último markSeen (epoch millis)
+    private static final int HEADER_WORDS = 2;
+    private static final int WORDS_PER_GENERATION = 16;           // 16 * 64 = 1024 bits
+    private static final int BITS_PER_GENERATION = WORDS_PER_GENERATION * 64;
+    private static final int WORDS_PER_USER = HEADER_WORDS + 2 * WORDS_PER_GENERATION;
+    private static final int HASH_FUNCTIONS = 4;
+    private static final int SATURATION_BITS = BITS_PER_GENERATION / 2;
+    private static final int USERS_PER_CHUNK = 1024;              // 272 KB por bloco
+    private static final int ROTATION_LOCKS = 64;
+    private static final double EVICT_TO = 0.8;                   // Arena cheia: remove os menos recentes até 80%
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    @Value("${youtube.seen.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Limite de usuários em memória (272 bytes de arena + entrada no mapa cada)
+     */
+    @Value("${youtube.seen.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${youtube.seen.idle-ttl:P30D}")
+    private Duration idleTtl;
+
+    @Value("${youtube.seen.snapshot-file:}")
+    private String snapshotFile;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock chunkLock = new ReentrantLock();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReentrantLock[] rotationLocks = new ReentrantLock[ROTATION_LOCKS];
+
+    {
+        for (int i = 0; i < ROTATION_LOCKS; i++) {
+            rotationLocks[i] = new ReentrantLock();
+        }
+    }
+    private volatile long[][] chunks = new long[0][];
+
+    /**
+     * Indica se o vídeo provavelmente já foi recomendado ao usuário.
+     * Pode retornar falso positivo (raro), nunca falso negativo.
+     */
+    public boolean mightContain(String userId, String videoId) {
+        if (!enabled || userId == null || videoId == null) {
+            return false;
+        }
+        Integer slot = slots.get(userId);
+        if (slot == null) {
+            return false;
+        }
+        long[] chunk = chunkFor(slot);
+        int base = offsetFor(slot);
+        long h1 = hash(videoId);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        return contains(chunk, generationBase(base, 0), h1, h2)
+            || contains(chunk, generationBase(base, 1), h1, h2);
+    }
+
+    /**
+     * Registra os vídeos como já recomendados para o usuário
+     */
+    public void markSeen(String userId, Collection<String> videoIds) {
+        if (!enabled || userId == null || videoIds.isEmpty()) {
+            return;
+        }
+        Integer slot = slotFor(userId);
+        if (slot == null) {
+            return;
+        }
+        long[] chunk = chunkFor(slot);
+        int base = offsetFor(slot);
+        LONGS.setOpaque(chunk, base + LAST_ACTIVE_WORD, System.currentTimeMillis());
+        long generation = (long) LONGS.getVolatile(chunk, base + GENERATION_WORD);
+        int current = generationBase(base, (int) (generation & 1));
+        for (String videoId : videoIds) {
+            long h1 = hash(videoId);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = (int) ((h1 + i * h2) & (BITS_PER_GENERATION - 1));
+                LONGS.getAndBitwiseOr(chunk, current + (bit >>> 6), 1L << (bit & 63));
+            }
+        }
+        if (bitCount(chunk, current) > SATURATION_BITS) {
+            rotate(chunk, base, slot, generation);
+        }
+    }
+
+    /**
+     * Zera a geração anterior e a torna a atual; a saturada (com o lote recém-gravado) vira a anterior
+     * Só uma thread rotaciona: as demais encontram o contador de gerações já avançado
+     */
+    private void rotate(long[] chunk, int base, int slot, long seenGeneration) {
+        ReentrantLock lock = rotationLocks[slot % ROTATION_LOCKS];
+        lock.lock();
+        try {
+            if ((long) LONGS.getVolatile(chunk, base + GENERATION_WORD) != seenGeneration) {
+                return;
+            }
+            int previous = generationBase(base, (int) ((seenGeneration + 1) & 1));
+            for (int i = 0; i < WORDS_PER_GENERATION; i++) {
+                LONGS.setVolatile(chunk, previous + i, 0L);
+            }
+            LONGS.setVolatile(chunk, base + GENERATION_WORD, seenGeneration + 1);
+            log.debug("♻️ Filtro de vistos saturado para usuário, rotacionando geração");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Número de usuários com histórico em memória
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Remove usuários sem markSeen há mais que o TTL e, se a arena ainda
+     * estiver cheia, os menos recentes até 80% do limite
+     * Os slots liberados são zerados e reaproveitados por usuários novos.
+     */
+    @Scheduled(fixedDelayString = "${youtube.seen.eviction-interval:PT10M}",
+               initialDelayString = "${youtube.seen.eviction-interval:PT10M}")
+    public void evictIdle() {
+        if (!enabled) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            long idleBefore = System.currentTimeMillis() - idleTtl.toMillis();
+            List<Resident> active = new ArrayList<>(slots.size());
+            int evicted = 0;
+            for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+                long lastActive = lastActive(entry.getValue());
+                if (lastActive < idleBefore) {
+                    evicted += evict(entry.getKey(), entry.getValue());
+                } else {
+                    active.add(new Resident(entry.getKey(), entry.getValue(), lastActive));
+                }
+            }
+            int excess = active.size() - (int) (maxUsers * EVICT_TO);
+            if (slots.size() >= maxUsers && excess > 0) {
+                // Ordena pelo último acesso lido acima: o valor vivo muda durante a ordenação
+                active.sort(Comparator.comparingLong(resident -> resident.lastActive));
+                for (int i = 0; i < excess; i++) {
+                    evicted += evict(active.get(i).userId, active.get(i).slot);
+                }
+            }
+            if (evicted > 0) {
+                log.info("🧹 Histórico de vistos: {} usuários removidos, {} em memória", evicted, slots.size());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Um markSeen em andamento para o usuário removido pode ainda gravar bits no
+     * slot já reaproveitado: no pior caso o novo dono vê alguns falsos "já vistos"
+     */
+    private int evict(String userId, int slot) {
+        if (!slots.remove(userId, slot)) {
+            return 0;
+        }
+        long[] chunk = chunkFor(slot);
+        int base = offsetFor(slot);
+        for (int i = 0; i < WORDS_PER_USER; i++) {
+            LONGS.setVolatile(chunk, base + i, 0L);
+        }
+        freeSlots.offer(slot);
+        return 1;
+    }
+
+    private long lastActive(int slot) {
+        return (long) LONGS.getOpaque(chunkFor(slot), offsetFor(slot) + LAST_ACTIVE_WORD);
+    }
+
+    /**
+     * Usuário em memória com o último acesso lido no início da varredura
+     */
+    private static final class Resident {
+        private final String userId;
+        private final int slot;
+        private final long lastActive;
+
+        private Resident(String userId, int slot, long lastActive) {
+            this.userId = userId;
+            this.slot = slot;
+            this.lastActive = lastActive;
+        }
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!enabled || snapshotFile == null || snapshotFile.isBlank()) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("⚠️ Snapshot de vídeos vistos com versão desconhecida, ignorando: {}", path);
+                return;
+            }
+            long idleBefore = System.currentTimeMillis() - idleTtl.toMillis();
+            int users = in.readInt();
+            for (int u = 0; u < users; u++) {
+                String userId = in.readUTF();
+                long[] words = new long[WORDS_PER_USER];
+                for (int i = 0; i < WORDS_PER_USER; i++) {
+                    words[i] = in.readLong();
+                }
+                if (words[LAST_ACTIVE_WORD] < idleBefore) {
+                    continue;
+                }
+                Integer slot = slotFor(userId);
+                if (slot != null) {
+                    System.arraycopy(words, 0, chunkFor(slot), offsetFor(slot), WORDS_PER_USER);
+                }
+            }
+            log.info("📂 Histórico de vídeos vistos carregado: {} usuários", slots.size());
+        } catch (IOException e) {
+            log.warn("⚠️ Não foi possível carregar snapshot de vídeos vistos: {}", path, e);
+        }
+    }
+
+    /**
+     * Grava snapshot periódico em disco (arquivo temporário + move atômico)
+     */
+    @Scheduled(fixedDelayString = "${youtube.seen.snapshot-interval:PT5M}",
+               initialDelayString = "${youtube.seen.snapshot-interval:PT5M}")
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!enabled || snapshotFile == null || snapshotFile.isBlank() || slots.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                List<Map.Entry<String, Integer>> entries = new ArrayList<>(slots.entrySet());
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Integer> entry : entries) {
+                    out.writeUTF(entry.getKey());
+                    long[] chunk = chunkFor(entry.getValue());
+                    int base = offsetFor(entry.getValue());
+                    for (int i = 0; i < WORDS_PER_USER; i++) {
+                        out.writeLong((long) LONGS.getVolatile(chunk, base + i));
+                    }
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("💾 Snapshot de vídeos vistos gravado: {} usuários", slots.size());
+        } catch (IOException e) {
+            log.warn("⚠️ Erro ao gravar snapshot de vídeos vistos: {}", path, e);
+        }
+    }
+
+    private Integer slotFor(String userId) {
+        Integer slot = slots.get(userId);
+        if (slot != null) {
+            return slot;
+        }
+        if (slots.size() >= maxUsers) {
+            // Arena cheia: uma thread libera os menos recentes, as demais seguem sem histórico
+            if (evictionLock.tryLock()) {
+                try {
+                    evictIdle();
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+            if (slots.size() >= maxUsers) {
+                return null;
+            }
+        }
+        // Último acesso gravado dentro do computeIfAbsent, antes de o slot ficar visível:
+        // um evictIdle concorrente nunca vê o slot novo com lastActive zerado
+        return slots.computeIfAbsent(userId, id -> {
+            Integer free = freeSlots.poll();
+            int allocated = free != null ? free : nextSlot.getAndIncrement();
+            ensureChunk(allocated / USERS_PER_CHUNK);
+            LONGS.setOpaque(chunkFor(allocated), offsetFor(allocated) + LAST_ACTIVE_WORD, System.currentTimeMillis());
+            return allocated;
+        });
+    }
+
+    private void ensureChunk(int chunkIndex) {
+        if (chunkIndex < chunks.length) {
+            return;
+        }
+        chunkLock.lock();
+        try {
+            long[][] current = chunks;
+            if (chunkIndex < current.length) {
+                return;
+            }
+            long[][] grown = Arrays.copyOf(current, chunkIndex + 1);
+            for (int i = current.length; i <= chunkIndex; i++) {
+                grown[i] = new long[USERS_PER_CHUNK * WORDS_PER_USER];
+            }
+            chunks = grown;
+        } finally {
+            chunkLock.unlock();
+        }
+    }
+
+    private long[] chunkFor(int slot) {
+        int chunkIndex = slot / USERS_PER_CHUNK;
+        if (chunkIndex >= chunks.length) {
+            ensureChunk(chunkIndex); // Slot recém-criado por outra thread
+        }
+        return chunks[chunkIndex];
+    }
+
+    private static int offsetFor(int slot) {
+        return (slot % USERS_PER_CHUNK) * WORDS_PER_USER;
+    }
+
+    private static int generationBase(int base, int generation) {
+        return base + HEADER_WORDS + generation * WORDS_PER_GENERATION;
+    }
+
+    private static boolean contains(long[] chunk, int generationBase, long h1, long h2) {
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (int) ((h1 + i * h2) & (BITS_PER_GENERATION - 1));
+            long word = (long) LONGS.getVolatile(chunk, generationBase + (bit >>> 6));
+            if ((word & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bitCount(long[] chunk, int generationBase) {
+        int bits = 0;
+        for (int i = 0; i < WORDS_PER_GENERATION; i++) {
+            bits += Long.bitCount((long) LONGS.getVolatile(chunk, generationBase + i));
+        }
+        return bits;
+    }
+
+    /**
+     * FNV-1a 64 bits sobre os caracteres do videoId, finalizado com mix
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
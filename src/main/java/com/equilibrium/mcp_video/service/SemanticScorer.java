@@ -0,0 +1,171 @@
+package com.equilibrium.mcp_video.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Similaridade semântica leve entre perfil do usuário e vídeos
+ *
+ * Cada texto vira um vetor de tamanho fixo por hashing de trigramas de
+ * caracteres e palavras (sem acentos), normalizado em L2. Trigramas cobrem
+ * variações e idiomas próximos ("relax", "relaxa", "relajación") sem
+ * dicionário de sinônimos. O vetor de consulta vem dos termos da tabela de
+ * regras (seção "terms") que se aplicam ao usuário.
+ *
+ * Os vetores do catálogo ficam em layout struct-of-arrays, montado na
+ * ingestão pelo {@link VideoCatalog}: uma coluna contígua por dimensão, com
+ * os vídeos lado a lado. O score é acumulado como uma sequência de saxpy
+ * (out[j] += q[d] * col[d][j]), pulando dimensões zeradas da consulta; por
+ * request só roda esse laço, sem transposição nem cópia dos vetores. O laço
+ * não tem redução e o C2 o vetoriza automaticamente (SIMD). A Vector API
+ * (jdk.incubator.vector) segue em incubação no Java 21 e exigiria
+ * --add-modules no build e na execução, então não é usada.
+ */
+@Component
+public class SemanticScorer {
+
+    public static final int DIMENSIONS = 256;
+
+    private static final int MAX_TEXT_LENGTH = 1200;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+
+    /**
+     * Converte texto livre (título, tags, descrição) em vetor normalizado
+     */
+    public float[] embed(String text) {
+        float[] vector = new float[DIMENSIONS];
+        if (text == null || text.isBlank()) {
+            return vector;
+        }
+        String normalized = normalize(text);
+        for (String word : normalized.split(" ")) {
+            if (word.length() < 3) {
+                continue;
+            }
+            accumulate(vector, word, 1.0f);
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                accumulate(vector, padded.substring(i, i + 3), 0.5f);
+            }
+        }
+        normalizeInPlace(vector);
+        return vector;
+    }
+
+    /**
+     * Vetor de features de um vídeo a partir de título, tags e descrição
+     */
+    public float[] embedVideo(String title, List<String> tags, String description) {
+        StringBuilder text = new StringBuilder();
+        // Título pesa mais: entra duas vezes
+        text.append(title).append(' ').append(title).append(' ');
+        if (tags != null) {
+            text.append(String.join(" ", tags)).append(' ');
+        }
+        if (description != null) {
+            text.append(description, 0, Math.min(description.length(), MAX_TEXT_LENGTH));
+        }
+        return embed(text.toString());
+    }
+
+    /**
+     * Similaridade de cosseno das primeiras {@code count} colunas de uma matriz
+     * coluna-major (columns[d * width + j]) com a consulta.
+     * Vetores já são normalizados, então o cosseno é o produto interno.
+     */
+    public float[] scoreColumns(float[] columns, int width, int count, float[] query) {
+        float[] scores = new float[count];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            float weight = query[d];
+            if (weight == 0f) {
+                continue;
+            }
+            int offset = d * width;
+            for (int j = 0; j < count; j++) {
+                scores[j] += weight * columns[offset + j];
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Similaridade de cosseno de um vetor avulso (vídeo fora do catálogo) com a consulta
+     */
+    public float similarity(float[] features, float[] query) {
+        if (features == null) {
+            return 0f;
+        }
+        float dot = 0f;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            dot += features[d] * query[d];
+        }
+        return dot;
+    }
+
+    /**
+     * Escala de quantização do vetor: a maior componente em módulo vira ±127
+     */
+    public static float quantizationScale(float[] vector) {
+        float max = 0f;
+        for (float v : vector) {
+            max = Math.max(max, Math.abs(v));
+        }
+        return max > 0f ? max / 127f : 1f;
+    }
+
+    /**
+     * Vetor com 1 byte por dimensão (para registros guardados em memória)
+     */
+    public static byte[] quantize(float[] vector, float scale) {
+        byte[] quantized = new byte[vector.length];
+        for (int d = 0; d < vector.length; d++) {
+            quantized[d] = (byte) Math.round(vector[d] / scale);
+        }
+        return quantized;
+    }
+
+    /**
+     * Reconstrói o vetor quantizado (erro de até meia escala por dimensão)
+     */
+    public static float[] dequantize(byte[] quantized, float scale) {
+        float[] vector = new float[quantized.length];
+        for (int d = 0; d < quantized.length; d++) {
+            vector[d] = quantized[d] * scale;
+        }
+        return vector;
+    }
+
+    private static String normalize(String text) {
+        String lower = text.length() > MAX_TEXT_LENGTH * 2
+            ? text.substring(0, MAX_TEXT_LENGTH * 2).toLowerCase(Locale.ROOT)
+            : text.toLowerCase(Locale.ROOT);
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return NON_WORD.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    private static void accumulate(float[] vector, String feature, float weight) {
+        int h = feature.hashCode() * 0x9E3779B1;
+        int bucket = (h >>> 16) & (DIMENSIONS - 1);
+        // Bit de sinal reduz o efeito de colisões no hashing
+        vector[bucket] += (h & 1) == 0 ? weight : -weight;
+    }
+
+    private static void normalizeInPlace(float[] vector) {
+        float norm = 0f;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0f) {
+            return;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int d = 0; d < vector.length; d++) {
+            vector[d] *= inv;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool local de vídeos candidatos, alimentado pela ingestão de canais curados
+ *
+ * Guarda os vídeos no formato compacto ({@link CatalogVideo}) em ordem de
+ * chegada e descarta os mais antigos quando passa do limite. O recommendVideos usa os mais recentes
+ * como candidatos sem gastar quota de search.list.
+ *
+ * No modo semantic os vetores dos vídeos não ficam nos registros: a ingestão
+ * remonta uma matriz coluna-major (uma coluna por dimensão, vídeos do mais
+ * recente ao mais antigo) e o ranking só roda o saxpy sobre o prefixo que
+ * cobre os candidatos ({@link SemanticScorer#scoreColumns}).
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoCatalog {
+
+    private final VideoConverter videoConverter;
+    private final SemanticScorer semanticScorer;
+
+    @Value("${youtube.catalog.max-size:5000}")
+    private int maxSize;
+
+    private final Map<String, CatalogVideo> videos = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<String> arrivalOrder = new ConcurrentLinkedDeque<>();
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile FeatureMatrix features = FeatureMatrix.EMPTY;
+
+    /**
+     * Adiciona ou atualiza vídeos no pool
+     */
+    public void putAll(Collection<RecommendedVideo> incoming) {
+        writeLock.lock();
+        try {
+            Map<String, float[]> incomingFeatures = new HashMap<>();
+            for (RecommendedVideo video : incoming) {
+                if (video.getFeatures() != null) {
+                    incomingFeatures.put(video.getVideoId(), video.getFeatures());
+                }
+                if (videos.put(video.getVideoId(), videoConverter.compact(video, false)) == null) {
+                    arrivalOrder.addLast(video.getVideoId());
+                }
+            }
+            while (videos.size() > maxSize) {
+                String oldest = arrivalOrder.pollFirst();
+                if (oldest == null) {
+                    break;
+                }
+                videos.remove(oldest);
+            }
+            if (!incomingFeatures.isEmpty() || features.width > 0) {
+                features = rebuildFeatures(incomingFeatures);
+            }
+            if (!incoming.isEmpty()) {
+                version.incrementAndGet();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Similaridade de cosseno de cada vídeo com a consulta, pelas colunas do pool
+     * Vídeos fora do pool (resultados de busca) ficam como NaN para o chamador pontuar pelo vetor do DTO.
+     */
+    public float[] similarities(float[] query, List<RecommendedVideo> candidates) {
+        FeatureMatrix matrix = features;
+        int[] columns = new int[candidates.size()];
+        int span = 0;
+        for (int i = 0; i < columns.length; i++) {
+            Integer column = matrix.columnOf.get(candidates.get(i).getVideoId());
+            columns[i] = column != null ? column : -1;
+            span = Math.max(span, columns[i] + 1);
+        }
+        // Candidatos saem do mais recente ao mais antigo, como as colunas: o prefixo os cobre
+        float[] columnScores = semanticScorer.scoreColumns(matrix.columns, matrix.width, span, query);
+        float[] scores = new float[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            scores[i] = columns[i] >= 0 ? columnScores[columns[i]] : Float.NaN;
+        }
+        return scores;
+    }
+
+    public boolean contains(String videoId) {
+        return videos.containsKey(videoId);
+    }
+
+    public int size() {
+        return videos.size();
+    }
+
+    /**
+     * Incrementa a cada alteração do pool (índices derivados usam para saber quando reconstruir)
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Registros compactos do pool (imutáveis, para montar índices)
+     */
+    public List<CatalogVideo> snapshot() {
+        return List.copyOf(videos.values());
+    }
+
+    /**
+     * Quantos candidatos {@link #candidates(int, String)} devolveria, sem montar os DTOs
+     */
+    public int countCandidates(int limit, String language) {
+        int count = 0;
+        Iterator<String> newestFirst = arrivalOrder.descendingIterator();
+        while (newestFirst.hasNext() && count < limit) {
+            CatalogVideo video = videos.get(newestFirst.next());
+            if (video != null && (video.getLanguage() == null || video.getLanguage().equals(language))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * DTOs novos dos vídeos mais recentes no idioma pedido (ou sem idioma informado), prontos para ranqueamento
+     */
+    public List<RecommendedVideo> candidates(int limit, String language) {
+        List<RecommendedVideo> candidates = new ArrayList<>(Math.min(limit, videos.size()));
+        Iterator<String> newestFirst = arrivalOrder.descendingIterator();
+        while (newestFirst.hasNext() && candidates.size() < limit) {
+            CatalogVideo video = videos.get(newestFirst.next());
+            if (video != null && (video.getLanguage() == null || video.getLanguage().equals(language))) {
+                candidates.add(videoConverter.materialize(video));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Matriz com uma coluna por vídeo do pool, do mais recente ao mais antigo
+     * Vetores novos vêm da ingestão; os demais são copiados da matriz anterior.
+     */
+    private FeatureMatrix rebuildFeatures(Map<String, float[]> incomingFeatures) {
+        FeatureMatrix previous = features;
+        int width = videos.size();
+        float[] columns = new float[SemanticScorer.DIMENSIONS * width];
+        Map<String, Integer> columnOf = new HashMap<>(width * 4 / 3 + 1);
+        Iterator<String> newestFirst = arrivalOrder.descendingIterator();
+        int column = 0;
+        while (newestFirst.hasNext() && column < width) {
+            String videoId = newestFirst.next();
+            if (!videos.containsKey(videoId)) {
+                continue;
+            }
+            float[] vector = incomingFeatures.get(videoId);
+            Integer previousColumn = previous.columnOf.get(videoId);
+            for (int d = 0; d < SemanticScorer.DIMENSIONS; d++) {
+                columns[d * width + column] = vector != null ? vector[d]
+                    : previousColumn != null ? previous.columns[d * previous.width + previousColumn]
+                    : 0f;
+            }
+            columnOf.put(videoId, column++);
+        }
+        return new FeatureMatrix(columns, width, columnOf);
+    }
+
+    /**
+     * Vetores semânticos do pool em colunas: columns[d * width + coluna]; imutável depois de publicada
+     */
+    private static final class FeatureMatrix {
+        private static final FeatureMatrix EMPTY = new FeatureMatrix(new float[0], 0, Map.of());
+
+        private final float[] columns;
+        private final int width;
+        private final Map<String, Integer> columnOf;
+
+        private FeatureMatrix(float[] columns, int width, Map<String, Integer> columnOf) {
+            this.columns = columns;
+            this.width = width;
+            this.columnOf = columnOf;
+        }
+    }
+}
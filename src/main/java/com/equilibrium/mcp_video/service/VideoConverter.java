@@ -0,0 +1,222 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.google.api.services.youtube.model.Video;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converte vídeos da YouTube API para o formato de recomendação
+ * Compartilhado entre a busca por keyword e a ingestão de canais curados
+ *
+ * Também converte entre o DTO de resposta e o registro compacto guardado em
+ * memória ({@link CatalogVideo}), mantendo o dicionário de nomes de canal e tags.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VideoConverter {
+
+    private static final int DEFAULT_MATCH_SCORE = 75; // Score padrão, será ajustado no ranking
+    private static final String DEFAULT_REASON = "Selecionado baseado no seu perfil e necessidades atuais";
+
+    private final SemanticScorer semanticScorer;
+    private final RecommendationRuleEngine ruleEngine;
+
+    /**
+     * Modo de ranking: keyword (palavras-chave no título) ou semantic (similaridade de vetores)
+     */
+    @Value("${youtube.ranking.mode:keyword}")
+    private String rankingMode;
+
+    /**
+     * Tamanho máximo da descrição guardada em memória (vetor semântico e categoria usam a descrição completa na conversão)
+     */
+    @Value("${youtube.catalog.description-chars:280}")
+    private int descriptionChars;
+
+    @Value("${youtube.catalog.max-tags:15}")
+    private int maxTags;
+
+    /**
+     * Limite do dicionário de canais e tags; depois dele, strings novas não são compartilhadas
+     */
+    @Value("${youtube.catalog.dictionary-max-size:50000}")
+    private int dictionaryMaxSize;
+
+    private final Map<String, String> dictionary = new ConcurrentHashMap<>();
+
+    public boolean isSemanticRanking() {
+        return "semantic".equalsIgnoreCase(rankingMode);
+    }
+
+    /**
+     * Converte Video do YouTube para RecommendedVideo
+     */
+    public RecommendedVideo convert(Video video) {
+        RecommendedVideo rv = new RecommendedVideo();
+        rv.setVideoId(video.getId());
+        rv.setTitle(video.getSnippet().getTitle());
+        rv.setDescription(video.getSnippet().getDescription());
+        rv.setThumbnailUrl(thumbnailUrl(video.getId())); // Nem todo vídeo traz thumbnails.high
+        rv.setContentUrl(contentUrl(video.getId()));
+        rv.setChannelTitle(video.getSnippet().getChannelTitle());
+        rv.setDurationSeconds(parseDuration(video.getContentDetails().getDuration()));
+        rv.setTags(video.getSnippet().getTags() != null ? 
+            video.getSnippet().getTags() : new ArrayList<>());
+        rv.setLanguage(languageOf(video.getSnippet().getDefaultAudioLanguage() != null
+            ? video.getSnippet().getDefaultAudioLanguage()
+            : video.getSnippet().getDefaultLanguage()));
+        if (isSemanticRanking()) {
+            rv.setFeatures(semanticScorer.embedVideo(rv.getTitle(), rv.getTags(), rv.getDescription()));
+        }
+        // Antes do truncamento de compact(): as palavras-chave podem estar no fim da descrição
+        rv.setCategory(ruleEngine.categorize(rv.getTitle(), rv.getDescription(), rv.getLanguage()));
+        rv.setMatchScore(DEFAULT_MATCH_SCORE);
+        rv.setReason(DEFAULT_REASON);
+        
+        return rv;
+    }
+
+    /**
+     * Converte um lote item a item: vídeos sem snippet/contentDetails ou que
+     * falham na conversão são descartados sem derrubar o lote inteiro
+     */
+    public List<RecommendedVideo> convertAll(List<Video> videos) {
+        List<RecommendedVideo> converted = new ArrayList<>(videos.size());
+        for (Video video : videos) {
+            if (video.getSnippet() == null || video.getContentDetails() == null) {
+                log.warn("⚠️ Vídeo {} sem snippet/contentDetails, ignorado", video.getId());
+                continue;
+            }
+            try {
+                converted.add(convert(video));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Vídeo {} ignorado: falha na conversão", video.getId(), e);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Registro compacto para guardar em memória (descrição truncada, canal e tags canônicos, sem URLs)
+     */
+    public CatalogVideo compact(RecommendedVideo video) {
+        return compact(video, true);
+    }
+
+    /**
+     * Registro compacto, opcionalmente sem o vetor semântico (o catálogo guarda os vetores na sua matriz)
+     * O vetor guardado é quantizado; a categoria é a da conversão, com a descrição ainda completa
+     */
+    public CatalogVideo compact(RecommendedVideo video, boolean withFeatures) {
+        List<String> tags = video.getTags() != null ? video.getTags() : List.of();
+        String[] canonicalTags = new String[Math.min(maxTags, tags.size())];
+        for (int i = 0; i < canonicalTags.length; i++) {
+            canonicalTags[i] = canonical(tags.get(i));
+        }
+        String description = video.getDescription();
+        if (description != null && description.length() > descriptionChars) {
+            description = description.substring(0, descriptionChars);
+        }
+        byte[] features = null;
+        float featureScale = 0f;
+        if (withFeatures && video.getFeatures() != null) {
+            featureScale = SemanticScorer.quantizationScale(video.getFeatures());
+            features = SemanticScorer.quantize(video.getFeatures(), featureScale);
+        }
+        return new CatalogVideo(
+            video.getVideoId(),
+            video.getTitle(),
+            description,
+            canonical(video.getChannelTitle()),
+            video.getDurationSeconds() != null ? video.getDurationSeconds() : 0,
+            canonicalTags,
+            features,
+            featureScale,
+            video.getLanguage(),
+            video.getCategory()
+        );
+    }
+
+    /**
+     * DTO independente para um request (o ranking altera score e razão)
+     */
+    public RecommendedVideo materialize(CatalogVideo video) {
+        return new RecommendedVideo(
+            video.getVideoId(),
+            video.getTitle(),
+            video.getDescription(),
+            thumbnailUrl(video.getVideoId()),
+            contentUrl(video.getVideoId()),
+            video.getDurationSeconds(),
+            video.getChannelTitle(),
+            DEFAULT_REASON,
+            DEFAULT_MATCH_SCORE,
+            List.of(video.getTags()),
+            video.getFeatures() != null ? SemanticScorer.dequantize(video.getFeatures(), video.getFeatureScale()) : null,
+            video.getLanguage(),
+            video.getCategory()
+        );
+    }
+
+    public static String contentUrl(String videoId) {
+        return "https://www.youtube.com/watch?v=" + videoId;
+    }
+
+    public static String thumbnailUrl(String videoId) {
+        return "https://i.ytimg.com/vi/" + videoId + "/hqdefault.jpg";
+    }
+
+    /**
+     * Código de idioma de 2 letras ("pt-BR" -> "pt"), canônico; null se a API não informou
+     */
+    private String languageOf(String apiLanguage) {
+        if (apiLanguage == null || apiLanguage.isBlank()) {
+            return null;
+        }
+        int separator = apiLanguage.indexOf('-');
+        String language = (separator > 0 ? apiLanguage.substring(0, separator) : apiLanguage).toLowerCase();
+        return canonical(language);
+    }
+
+    /**
+     * Instância compartilhada da string (nomes de canal e tags se repetem muito entre vídeos)
+     */
+    private String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = dictionary.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (dictionary.size() >= dictionaryMaxSize) {
+            return value;
+        }
+        existing = dictionary.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Parse duração ISO 8601 para segundos
+     */
+    private Integer parseDuration(String isoDuration) {
+        try {
+            Duration duration = Duration.parse(isoDuration);
+            return (int) duration.getSeconds();
+        } catch (Exception e) {
+            log.warn("Erro ao parsear duração: {}", isoDuration);
+            return 0;
+        }
+    }
+}
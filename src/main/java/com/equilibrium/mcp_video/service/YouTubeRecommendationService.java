@@ -1,23 +1,26 @@
 package com.equilibrium.mcp_video.service;
 
+import com.equilibrium.mcp_video.client.YouTubeClient;
 import com.equilibrium.mcp_video.dto.UserState;
 import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
 import com.equilibrium.mcp_video.dto.VideoRecommendationResponse;
 import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
 import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.VideoRecommendation;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
-import com.google.api.services.youtube.YouTube;
-import com.google.api.services.youtube.model.SearchListResponse;
-import com.google.api.services.youtube.model.SearchResult;
+import com.equilibrium.mcp_video.logging.RequestLogContext;
+import com.equilibrium.mcp_video.rules.KeywordBoost;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.equilibrium.mcp_video.rules.RuleOutcome;
 import com.google.api.services.youtube.model.Video;
-import com.google.api.services.youtube.model.VideoListResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -26,32 +29,85 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class YouTubeRecommendationService {
 
-    @Value("${youtube.api.key:}")
-    private String apiKey;
+    private final YouTubeClient youTubeClient;
+    private final SeenVideoFilter seenVideoFilter;
+    private final SemanticScorer semanticScorer;
+    private final VideoConverter videoConverter;
+    private final VideoCatalog videoCatalog;
+    private final SearchResultCache searchResultCache;
+    private final QueryYieldTracker queryYieldTracker;
+    private final RecommendationRuleEngine ruleEngine;
+    private final CandidateSetStore candidateSets;
+    private final QueryPlanner queryPlanner;
+    private final EngagementCounters engagementCounters;
 
-    private YouTube youtube;
+    @Value("${youtube.seen.penalty:30}")
+    private int seenPenalty;
+
+    @Value("${youtube.ranking.semantic-weight:40}")
+    private int semanticWeight;
+
+    /**
+     * Pontos máximos (para mais ou para menos) da popularidade decaída de plays e skips
+     */
+    @Value("${youtube.ranking.popularity-weight:15}")
+    private int popularityWeight;
+
+    @Value("${youtube.overfetch.min-queries:1}")
+    private int minSearchQueries;
+
+    /**
+     * Máximo de candidatos vindos do pool de canais curados por request
+     */
+    @Value("${youtube.channels.candidate-limit:200}")
+    private int catalogCandidateLimit;
+
+    /**
+     * Chave de rendimento (over-fetch) para candidatos do pool de canais
+     */
+    private static final String CATALOG_SOURCE = "catalog:channels";
+
+    /**
+     * Origem das buscas: LIVE chama a YouTube API no miss, CACHED aborta no miss
+     * (fila CACHE) e DEGRADED segue sem a busca (sobrecarga)
+     */
+    private enum FetchMode { LIVE, CACHED, DEGRADED }
+
+    /**
+     * Cliente alternativo para a thread atual (warm-up com cliente sintético)
+     */
+    private final ThreadLocal<YouTubeClient> clientOverride = new ThreadLocal<>();
+
+    /**
+     * Buscas sem API Key e buscas sem resultado no intervalo (resumidas em reportSearchOutcomes)
+     */
+    private final LongAdder unconfiguredSearches = new LongAdder();
+    private final LongAdder emptySearches = new LongAdder();
 
     /**
-     * Inicializa o cliente do YouTube
+     * Executa a ação usando outro cliente do YouTube apenas na thread atual
+     * Requests concorrentes continuam usando o cliente real
      */
-    private YouTube getYouTubeService() {
-        if (youtube == null) {
-            try {
-                youtube = new YouTube.Builder(
-                    GoogleNetHttpTransport.newTrustedTransport(),
-                    GsonFactory.getDefaultInstance(),
-                    null
-                )
-                .setApplicationName("Equilibrium-YouTube-MCP")
-                .build();
-            } catch (Exception e) {
-                log.error("Erro ao inicializar YouTube Service", e);
-                throw new RuntimeException("Erro ao inicializar YouTube Service", e);
+    public <T> T withClient(YouTubeClient client, Supplier<T> action) {
+        YouTubeClient previous = clientOverride.get();
+        clientOverride.set(client);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                clientOverride.remove();
+            } else {
+                clientOverride.set(previous);
             }
         }
-        return youtube;
+    }
+
+    private YouTubeClient client() {
+        YouTubeClient override = clientOverride.get();
+        return override != null ? override : youTubeClient;
     }
 
     /**
@@ -59,31 +115,98 @@ public class YouTubeRecommendationService {
      * Este é o método principal que coordena todo o fluxo de recomendação
      */
     public VideoRecommendationResponse recommendVideos(VideoRecommendationRequest request) {
+        return recommend(request, FetchMode.LIVE);
+    }
+
+    /**
+     * Recomendação completa usando só buscas em cache, para a fila CACHE do controle de admissão
+     * Retorna null se alguma busca planejada saiu do cache depois de {@link #isAnswerableFromCache}
+     * (o chamador readmite o request na fila LIVE em vez de chamar a YouTube API pela fila CACHE)
+     */
+    public VideoRecommendationResponse recommendCached(VideoRecommendationRequest request) {
+        return recommend(request, FetchMode.CACHED);
+    }
+
+    /**
+     * Recomendação degradada usando apenas cache e pool de canais, sem chamar a YouTube API
+     * Usada pelo controle de admissão quando o servidor está sobrecarregado
+     */
+    public VideoRecommendationResponse recommendFromCache(VideoRecommendationRequest request) {
+        return recommend(request, FetchMode.DEGRADED);
+    }
+
+    /**
+     * Indica se todas as buscas que o request faria já estão em cache
+     * (request barato, vai para a fila prioritária do controle de admissão)
+     */
+    public boolean isAnswerableFromCache(VideoRecommendationRequest request) {
+        RuleOutcome rules = ruleEngine.evaluate(request.getUserState(), request.getCategory(), request.getLanguage());
+        String duration = getDurationFilter(request.getPreferredDuration());
+        String bucketKey = CandidateSetStore.bucketKey(rules.getQueries(), duration, request.getLanguage());
+        if (candidateSets.contains(request.getContinuationToken(), request.getUserState().getUserId(), bucketKey)) {
+            return true;
+        }
+        List<String> searchQueries = queryPlanner.plan(rules, request, duration);
+        double catalogSurvivors = queryYieldTracker.expectedSurvivors(
+            CATALOG_SOURCE, videoCatalog.countCandidates(catalogCandidateLimit, request.getLanguage()));
+        return overFetch(searchQueries, targetOf(request), catalogSurvivors, (query, pageSize) ->
+            searchResultCache.contains(query, duration, request.getLanguage(), pageSize) ? pageSize : -1) >= 0;
+    }
+
+    /**
+     * Queries de busca que o request emitiria, na ordem de prioridade
+     * (usado pelo simulador de capacidade, sem chamar a YouTube API)
+     */
+    public List<String> planSearchQueries(VideoRecommendationRequest request) {
+        RuleOutcome rules = ruleEngine.evaluate(request.getUserState(), request.getCategory(), request.getLanguage());
+        return queryPlanner.plan(rules, request, getDurationFilter(request.getPreferredDuration()));
+    }
+
+    private VideoRecommendationResponse recommend(VideoRecommendationRequest request, FetchMode mode) {
         long startTime = System.currentTimeMillis();
         
         try {
-            log.info("🎯 Iniciando recomendação de vídeos para usuário");
-            
             UserState userState = request.getUserState();
             
-            // 1. Analisar estado do usuário e definir estratégia de busca
-            List<String> searchQueries = buildSearchQueries(userState, request.getCategory());
-            log.info("📝 Queries de busca geradas: {}", searchQueries);
+            // 0. Avaliar as regras uma única vez para este usuário
+            RuleOutcome rules = ruleEngine.evaluate(userState, request.getCategory(), request.getLanguage());
             
-            // 2. Buscar vídeos para cada query
-            List<RecommendedVideo> allVideos = new ArrayList<>();
-            for (String query : searchQueries) {
-                List<RecommendedVideo> videos = searchYouTubeVideos(query, request);
-                allVideos.addAll(videos);
+            // 1. Mesmo bucket de queries de uma recomendação anterior: só reranquear os candidatos guardados
+            String duration = getDurationFilter(request.getPreferredDuration());
+            String bucketKey = CandidateSetStore.bucketKey(rules.getQueries(), duration, request.getLanguage());
+            List<RecommendedVideo> retained = candidateSets.get(
+                request.getContinuationToken(), userState.getUserId(), bucketKey);
+            boolean sampled = RequestLogContext.isSampled();
+            
+            // 2. Caso contrário, planejar as buscas (cobertura do perfil por custo de quota)
+            Map<String, String> sourceQuery = new HashMap<>();
+            Map<String, Integer> fetchedPerQuery = new LinkedHashMap<>();
+            List<RecommendedVideo> allVideos;
+            if (retained != null) {
+                allVideos = retained;
+            } else {
+                List<String> searchQueries = queryPlanner.plan(rules, request, duration);
+                if (sampled) {
+                    log.atInfo()
+                        .addKeyValue("queries", searchQueries.size())
+                        .addKeyValue("mode", mode)
+                        .addArgument(() -> String.join(" | ", searchQueries))
+                        .log("📝 Queries de busca planejadas: {}");
+                }
+                // 3. Coletar candidatos do pool de canais e da busca
+                allVideos = collectCandidates(searchQueries, request, mode, sourceQuery, fetchedPerQuery);
+                if (allVideos == null) {
+                    return null; // FetchMode.CACHED: uma busca saiu do cache
+                }
             }
             
-            // 3. Filtrar e ranquear vídeos baseado no perfil do usuário
-            List<RecommendedVideo> rankedVideos = rankVideos(allVideos, userState, request);
+            // 4. Filtrar e ranquear vídeos baseado no perfil do usuário
+            List<RecommendedVideo> rankedVideos = rankVideos(allVideos, userState, request, rules);
             
-            // 4. Agrupar por categoria
-            Map<String, List<RecommendedVideo>> videosByCategory = groupByCategory(rankedVideos);
+            // 5. Agrupar por categoria
+            Map<String, List<RecommendedVideo>> videosByCategory = groupByCategory(rankedVideos, request.getLanguage());
             
-            // 5. Criar recomendações por categoria
+            // 6. Criar recomendações por categoria
             List<VideoRecommendation> recommendations = videosByCategory.entrySet().stream()
                 .map(entry -> new VideoRecommendation(
                     entry.getKey(),
@@ -91,18 +214,44 @@ public class YouTubeRecommendationService {
                 ))
                 .collect(Collectors.toList());
             
-            // 6. Gerar insights e sugestões
-            String insights = generateInsights(userState);
-            List<String> suggestions = generateSuggestions(userState);
+            List<String> deliveredIds = recommendations.stream()
+                .flatMap(rec -> rec.getVideos().stream())
+                .map(RecommendedVideo::getVideoId)
+                .collect(Collectors.toList());
+            
+            // 7. Registrar vídeos entregues para não repeti-los nas próximas recomendações
+            seenVideoFilter.markSeen(userState.getUserId(), deliveredIds);
+            
+            // 7.1 Atualizar o rendimento de cada query (quantos resultados chegaram na resposta)
+            //     e guardar os candidatos para reranqueamento nos pedidos seguintes
+            String continuationToken = retained != null ? request.getContinuationToken() : null;
+            if (clientOverride.get() == null && retained == null) {
+                recordQueryYield(fetchedPerQuery, sourceQuery, deliveredIds);
+                if (mode != FetchMode.DEGRADED && !allVideos.isEmpty()) {
+                    continuationToken = candidateSets.put(userState.getUserId(), bucketKey, allVideos);
+                }
+            }
+            
+            // 8. Gerar insights e sugestões
+            String insights = ruleEngine.renderInsights(rules, userState, request.getCategory());
+            List<String> suggestions = rules.getSuggestions();
             
             long processingTime = System.currentTimeMillis() - startTime;
-            log.info("✅ Recomendações geradas em {}ms", processingTime);
+            if (sampled) {
+                log.atInfo()
+                    .addKeyValue("processingTimeMs", processingTime)
+                    .addKeyValue("delivered", deliveredIds.size())
+                    .addKeyValue("retained", retained != null)
+                    .log("✅ Recomendações geradas");
+            }
             
             return new VideoRecommendationResponse(
                 recommendations,
                 insights,
                 suggestions,
-                processingTime
+                processingTime,
+                mode == FetchMode.DEGRADED ? Boolean.TRUE : null,
+                continuationToken
             );
             
         } catch (Exception e) {
@@ -112,150 +261,165 @@ public class YouTubeRecommendationService {
     }
 
     /**
-     * Constrói queries de busca personalizadas baseado no estado do usuário
-     * Este método cria prompts ricos em detalhes para a YouTube API
+     * Coleta candidatos do pool de canais curados e das buscas por query
+     * Preenche a origem de cada vídeo e quantos resultados cada query trouxe (para o over-fetch)
+     * Retorna null se o modo é CACHED e uma das buscas não está mais em cache
      */
-    private List<String> buildSearchQueries(UserState userState, String category) {
-        List<String> queries = new ArrayList<>();
-        String language = "português"; // ou inglês baseado em configuração
-        
-        // Análise profunda do estado emocional para queries personalizadas
-        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
-            // Stress alto: foco em relaxamento profundo
-            queries.add("meditação guiada stress ansiedade reduzir " + language);
-            queries.add("música relaxante dormir profundo ondas cerebrais");
-            queries.add("sons da natureza chuva floresta relaxamento 4K");
-            queries.add("yoga nidra relaxamento profundo guiado");
-        } else if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
-            // Ansiedade alta: técnicas de grounding e respiração
-            queries.add("exercícios respiração ansiedade guiado");
-            queries.add("meditação mindfulness presente momento");
-            queries.add("sons calmantes ansiedade relaxar mente");
-        } else if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
-            // Energia baixa: vídeos energizantes e motivacionais
-            queries.add("yoga energizante manhã despertar");
-            queries.add("música motivacional energia positiva");
-            queries.add("meditação energia vital chakra");
-            queries.add("exercícios respiração energizantes pranayama");
+    private List<RecommendedVideo> collectCandidates(List<String> searchQueries, VideoRecommendationRequest request,
+                                                     FetchMode mode, Map<String, String> sourceQuery,
+                                                     Map<String, Integer> fetchedPerQuery) {
+        // Candidatos do pool de canais curados (sem custo de quota de busca)
+        List<RecommendedVideo> allVideos = new ArrayList<>();
+        Set<String> collectedIds = new HashSet<>();
+        double catalogSurvivors = 0;
+        List<RecommendedVideo> catalogVideos = videoCatalog.candidates(catalogCandidateLimit, request.getLanguage());
+        if (!catalogVideos.isEmpty()) {
+            for (RecommendedVideo video : catalogVideos) {
+                collectedIds.add(video.getVideoId());
+                sourceQuery.put(video.getVideoId(), CATALOG_SOURCE);
+            }
+            fetchedPerQuery.put(CATALOG_SOURCE, catalogVideos.size());
+            catalogSurvivors = queryYieldTracker.expectedSurvivors(CATALOG_SOURCE, catalogVideos.size());
+            allVideos.addAll(catalogVideos);
         }
         
-        // Análise de objetivos de saúde
-        if ("wellness".equals(userState.getHealthGoal())) {
-            queries.add("bem-estar holístico meditação saúde mental");
-            queries.add("estilo vida saudável relaxamento equilíbrio");
-        } else if ("lose".equals(userState.getHealthGoal())) {
-            queries.add("meditação perda peso visualização");
-            queries.add("relaxamento após exercício recuperação");
+        // Buscar vídeos por query, dimensionando cada página pelo rendimento observado
+        int issuedQueries = overFetch(searchQueries, targetOf(request), catalogSurvivors, (query, pageSize) -> {
+            List<RecommendedVideo> videos = searchYouTubeVideos(query, pageSize, request, mode);
+            if (videos == null) {
+                return -1;
+            }
+            for (RecommendedVideo video : videos) {
+                if (collectedIds.add(video.getVideoId())) {
+                    sourceQuery.put(video.getVideoId(), query);
+                    allVideos.add(video);
+                }
+            }
+            fetchedPerQuery.put(query, videos.size());
+            return videos.size();
+        });
+        if (issuedQueries < 0) {
+            return null;
         }
-        
-        // Análise de qualidade do sono
-        if ("poor".equals(userState.getSleepQuality()) || 
-            (userState.getAverageSleepHours() != null && userState.getAverageSleepHours() < 6)) {
-            queries.add("música dormir insônia sono profundo");
-            queries.add("meditação guiada dormir rápido");
-            queries.add("sons relaxantes dormir bebê 432hz");
+        if (RequestLogContext.isSampled()) {
+            log.atDebug()
+                .addKeyValue("issuedQueries", issuedQueries)
+                .addKeyValue("candidates", allVideos.size())
+                .log("📦 Over-fetch concluído");
         }
-        
-        // Baseado na categoria solicitada (se especificada)
-        if (category != null) {
-            switch (category) {
-                case "nature":
-                    queries.add("sons da natureza relaxamento 4K ultra HD");
-                    queries.add("floresta tropical chuva meditação 10 horas");
-                    queries.add("oceano ondas praia relaxar dormir");
-                    queries.add("pássaros cantando manhã natureza");
-                    break;
-                case "meditation":
-                    queries.add("meditação guiada " + language + " atenção plena");
-                    queries.add("mindfulness meditação iniciantes");
-                    queries.add("body scan relaxamento progressivo");
-                    queries.add("meditação chakras equilíbrio energia");
-                    break;
-                case "music":
-                    queries.add("música relaxante instrumental piano");
-                    queries.add("música ambiente meditação spa");
-                    queries.add("música clássica relaxar estudar");
-                    queries.add("lofi relaxante jazz suave");
-                    break;
-                case "breathing":
-                    queries.add("exercícios respiração guiada pranayama");
-                    queries.add("respiração 4-7-8 técnica dormir");
-                    queries.add("respiração profunda relaxamento stress");
-                    queries.add("wim hof método respiração energia");
-                    break;
+        return allVideos;
+    }
+
+    /**
+     * Laço de over-fetch compartilhado pela coleta de candidatos e pela checagem de cache:
+     * percorre as queries na ordem do plano, com página dimensionada pelo rendimento observado,
+     * e para quando os sobreviventes esperados já cobrem o pedido
+     *
+     * @param fetch recebe (query, pageSize) e devolve quantos vídeos a query trouxe, ou -1 para abortar
+     * @return número de queries emitidas, ou -1 se o fetch abortou
+     */
+    private int overFetch(List<String> searchQueries, int target, double expectedSurvivors,
+                          ToIntBiFunction<String, Integer> fetch) {
+        int wantedPerQuery = (int) Math.ceil((double) target / Math.max(1, searchQueries.size()));
+        int issuedQueries = 0;
+        for (String query : searchQueries) {
+            // Pelo menos min-queries buscas por request, para o pool não se autorreforçar
+            if (expectedSurvivors >= target && issuedQueries >= minSearchQueries) {
+                break;
             }
+            issuedQueries++;
+            int fetched = fetch.applyAsInt(query, queryYieldTracker.pageSize(query, wantedPerQuery));
+            if (fetched < 0) {
+                return -1;
+            }
+            expectedSurvivors += queryYieldTracker.expectedSurvivors(query, fetched);
         }
-        
-        // Queries baseadas em gamificação (motivação)
-        if (userState.getCurrentStreak() != null && userState.getCurrentStreak() > 7) {
-            queries.add("meditação avançada mindfulness profundo");
-            queries.add("yoga intermediário relaxamento força");
-        } else {
-            queries.add("meditação iniciantes guiada simples");
-            queries.add("relaxamento básico começar agora");
-        }
-        
-        // Queries padrão de alta qualidade se não houver nenhuma específica
-        if (queries.isEmpty()) {
-            queries.add("meditação relaxamento " + language + " guiada");
-            queries.add("música calma instrumental sono");
-            queries.add("natureza sons relaxantes 4K");
+        return issuedQueries;
+    }
+
+    private static int targetOf(VideoRecommendationRequest request) {
+        return request.getMaxResults() != null ? request.getMaxResults() : 10;
+    }
+
+    /**
+     * Alimenta o aprendizado de over-fetch com os sobreviventes de cada query
+     * (um vídeo conta para a primeira query que o trouxe)
+     */
+    private void recordQueryYield(Map<String, Integer> fetchedPerQuery, Map<String, String> sourceQuery,
+                                  List<String> deliveredIds) {
+        Map<String, Integer> survivedPerQuery = new HashMap<>();
+        for (String videoId : deliveredIds) {
+            String query = sourceQuery.get(videoId);
+            if (query != null) {
+                survivedPerQuery.merge(query, 1, Integer::sum);
+            }
         }
-        
-        // Limitar a 5 queries para não exceder quota da API
-        return queries.stream().distinct().limit(5).collect(Collectors.toList());
+        fetchedPerQuery.forEach((query, fetched) ->
+            queryYieldTracker.record(query, fetched, survivedPerQuery.getOrDefault(query, 0)));
     }
 
     /**
      * Busca vídeos no YouTube usando a API v3
      * Implementa busca real com filtros avançados
      */
-    private List<RecommendedVideo> searchYouTubeVideos(String query, VideoRecommendationRequest request) {
+    private List<RecommendedVideo> searchYouTubeVideos(String query, int pageSize, VideoRecommendationRequest request,
+                                                       FetchMode mode) {
+        // Cliente sintético (warm-up) não lê nem grava no cache
+        boolean useCache = clientOverride.get() == null;
+        String duration = getDurationFilter(request.getPreferredDuration());
+        if (useCache) {
+            List<RecommendedVideo> cached = searchResultCache.get(query, duration, request.getLanguage(), pageSize);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (mode == FetchMode.CACHED) {
+            return null; // Miss: o request volta para a fila LIVE
+        }
+        if (mode == FetchMode.DEGRADED) {
+            return new ArrayList<>();
+        }
+        
         try {
             // Verificar se API Key está configurada
-            if (apiKey == null || apiKey.trim().isEmpty()) {
-                log.warn("⚠️ YouTube API Key não configurada, retornando lista vazia");
+            YouTubeClient client = client();
+            if (!client.isConfigured()) {
+                unconfiguredSearches.increment();
                 return new ArrayList<>();
             }
             
-            YouTube.Search.List search = getYouTubeService().search().list(Collections.singletonList("id,snippet"));
-            search.setKey(apiKey);
-            search.setQ(query);
-            search.setType(Collections.singletonList("video"));
-            search.setMaxResults(Long.valueOf(request.getMaxResults() != null ? request.getMaxResults() : 5));
-            search.setOrder("relevance");
-            search.setVideoDuration(getDurationFilter(request.getPreferredDuration()));
-            search.setRelevanceLanguage(request.getLanguage());
-            search.setSafeSearch("moderate");
-            search.setVideoDefinition("any"); // HD ou SD
-            search.setVideoEmbeddable("true"); // Apenas vídeos que podem ser embedados
+            List<String> videoIds = client.searchVideoIds(
+                query,
+                pageSize,
+                duration,
+                request.getLanguage());
             
-            SearchListResponse searchResponse = search.execute();
-            List<SearchResult> searchResults = searchResponse.getItems();
-            
-            if (searchResults == null || searchResults.isEmpty()) {
-                log.warn("Nenhum vídeo encontrado para query: {}", query);
+            if (videoIds.isEmpty()) {
+                emptySearches.increment();
+                if (RequestLogContext.isSampled()) {
+                    log.atDebug().addKeyValue("query", query).log("Nenhum vídeo encontrado para a query");
+                }
+                if (useCache) {
+                    searchResultCache.put(query, duration, request.getLanguage(), pageSize, List.of());
+                }
                 return new ArrayList<>();
             }
             
-            // Obter IDs dos vídeos
-            String videoIds = searchResults.stream()
-                .map(sr -> sr.getId().getVideoId())
-                .collect(Collectors.joining(","));
-            
             // Buscar detalhes completos dos vídeos
-            YouTube.Videos.List videosList = getYouTubeService().videos()
-                .list(Collections.singletonList("snippet,contentDetails,statistics"));
-            videosList.setKey(apiKey);
-            videosList.setId(Collections.singletonList(videoIds));
-            
-            VideoListResponse videosResponse = videosList.execute();
-            List<Video> videos = videosResponse.getItems();
+            List<Video> videos = client.getVideos(videoIds);
             
             // Converter para RecommendedVideo
-            return videos.stream()
-                .map(this::convertToRecommendedVideo)
+            List<RecommendedVideo> converted = videoConverter.convertAll(videos);
+            if (!useCache) {
+                return converted;
+            }
+            
+            // Cache guarda o registro compacto; o request recebe os DTOs completos da conversão
+            List<CatalogVideo> compacted = converted.stream()
+                .map(videoConverter::compact)
                 .collect(Collectors.toList());
+            searchResultCache.put(query, duration, request.getLanguage(), pageSize, compacted);
+            return converted;
                 
         } catch (Exception e) {
             log.error("Erro ao buscar vídeos do YouTube para query: {}", query, e);
@@ -264,35 +428,19 @@ public class YouTubeRecommendationService {
     }
 
     /**
-     * Converte Video do YouTube para RecommendedVideo
+     * Resumo das buscas vazias no intervalo, no mesmo ritmo do resumo de sobrecarga;
+     * não loga nada quando todas as buscas trouxeram vídeos
      */
-    private RecommendedVideo convertToRecommendedVideo(Video video) {
-        RecommendedVideo rv = new RecommendedVideo();
-        rv.setVideoId(video.getId());
-        rv.setTitle(video.getSnippet().getTitle());
-        rv.setDescription(video.getSnippet().getDescription());
-        rv.setThumbnailUrl(video.getSnippet().getThumbnails().getHigh().getUrl());
-        rv.setContentUrl("https://www.youtube.com/watch?v=" + video.getId());
-        rv.setChannelTitle(video.getSnippet().getChannelTitle());
-        rv.setDurationSeconds(parseDuration(video.getContentDetails().getDuration()));
-        rv.setTags(video.getSnippet().getTags() != null ? 
-            video.getSnippet().getTags() : new ArrayList<>());
-        rv.setMatchScore(75); // Score padrão, será ajustado no ranking
-        rv.setReason("Selecionado baseado no seu perfil e necessidades atuais");
-        
-        return rv;
-    }
-
-    /**
-     * Parse duração ISO 8601 para segundos
-     */
-    private Integer parseDuration(String isoDuration) {
-        try {
-            Duration duration = Duration.parse(isoDuration);
-            return (int) duration.getSeconds();
-        } catch (Exception e) {
-            log.warn("Erro ao parsear duração: {}", isoDuration);
-            return 0;
+    @Scheduled(fixedDelayString = "${youtube.admission.report-interval:PT1M}",
+               initialDelayString = "${youtube.admission.report-interval:PT1M}")
+    public void reportSearchOutcomes() {
+        long unconfigured = unconfiguredSearches.sumThenReset();
+        long empty = emptySearches.sumThenReset();
+        if (unconfigured > 0) {
+            log.warn("⚠️ YouTube API Key não configurada: {} buscas retornaram lista vazia no intervalo", unconfigured);
+        }
+        if (empty > 0) {
+            log.warn("🔍 {} buscas sem nenhum vídeo encontrado no intervalo", empty);
         }
     }
 
@@ -313,8 +461,21 @@ public class YouTubeRecommendationService {
     /**
      * Ranqueia vídeos baseado no perfil detalhado do usuário
      */
-    private List<RecommendedVideo> rankVideos(List<RecommendedVideo> videos, UserState userState, VideoRecommendationRequest request) {
-        videos.forEach(video -> {
+    private List<RecommendedVideo> rankVideos(List<RecommendedVideo> videos, UserState userState,
+                                              VideoRecommendationRequest request, RuleOutcome rules) {
+        // No modo semântico, todos os candidatos são pontuados de uma vez contra o vetor do perfil
+        float[] similarities = isSemanticRanking() ? semanticSimilarities(videos, rules) : null;
+        
+        // Razões dependem do usuário e só da faixa de duração do vídeo: montar as três variantes uma vez
+        // (textos fixos no idioma do pacote de regras)
+        String quickReason = rules.videoReason(
+            rules.phrase("quickDuration", "duração perfeita para uma pausa rápida"));
+        String immersiveReason = rules.videoReason(
+            rules.phrase("immersiveDuration", "ideal para relaxamento profundo e imersivo"));
+        String defaultReason = rules.videoReason(null);
+        
+        for (int index = 0; index < videos.size(); index++) {
+            RecommendedVideo video = videos.get(index);
             int score = 50; // Score base
             
             // Ajustar score baseado em duração preferida
@@ -333,39 +494,37 @@ public class YouTubeRecommendationService {
                 }
             }
             
-            // Ajustar baseado em palavras-chave no título (análise semântica)
-            String titleLower = video.getTitle().toLowerCase();
-            if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
-                if (titleLower.contains("relaxa") || titleLower.contains("calma")) score += 15;
-                if (titleLower.contains("stress") || titleLower.contains("ansiedade")) score += 10;
-                if (titleLower.contains("profundo") || titleLower.contains("deep")) score += 8;
-            }
-            
-            if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
-                if (titleLower.contains("energia") || titleLower.contains("motiv")) score += 15;
-                if (titleLower.contains("despertar") || titleLower.contains("energi")) score += 10;
+            String titleLower = video.getTitle().toLowerCase(Locale.ROOT);
+            if (similarities != null) {
+                // Similaridade semântica com as necessidades do usuário
+                score += Math.round(Math.max(0f, similarities[index]) * semanticWeight);
+            } else {
+                // Ajustar baseado em palavras-chave no título (boosts do perfil na tabela de regras)
+                for (KeywordBoost boost : rules.getBoosts()) {
+                    score += boost.score(titleLower);
+                }
             }
             
-            if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
-                if (titleLower.contains("ansiedade") || titleLower.contains("anxiety")) score += 15;
-                if (titleLower.contains("respira") || titleLower.contains("breath")) score += 10;
+            // Boost para vídeos de alta qualidade (HD, 4K) e guiados
+            for (KeywordBoost boost : rules.getQualityBoosts()) {
+                score += boost.score(titleLower);
             }
             
-            // Boost para vídeos de alta qualidade (HD, 4K)
-            if (titleLower.contains("4k") || titleLower.contains("hd") || titleLower.contains("ultra")) {
-                score += 5;
+            // Penalizar vídeos já recomendados ao usuário (evita repetir o mesmo conteúdo todo dia)
+            if (seenVideoFilter.mightContain(userState.getUserId(), video.getVideoId())) {
+                score -= seenPenalty;
             }
             
-            // Boost para vídeos guiados
-            if (titleLower.contains("guiada") || titleLower.contains("guided")) {
-                score += 8;
-            }
+            // Popularidade recente: vídeos que os usuários tocam sobem, os que pulam descem
+            score += (int) Math.round(engagementCounters.popularity(video.getVideoId()) * popularityWeight);
             
-            video.setMatchScore(Math.min(100, score));
+            video.setMatchScore(Math.max(0, Math.min(100, score)));
             
             // Atualizar razão personalizada
-            video.setReason(generateVideoReason(video, userState));
-        });
+            video.setReason(durationMinutes < 15 ? quickReason
+                : durationMinutes > 30 ? immersiveReason
+                : defaultReason);
+        }
         
         // Ordenar por score e remover duplicatas
         return videos.stream()
@@ -376,138 +535,38 @@ public class YouTubeRecommendationService {
     }
 
     /**
-     * Gera razão personalizada e detalhada para recomendação do vídeo
+     * Vídeos do catálogo são pontuados pelas colunas montadas na ingestão;
+     * os vindos da busca, pelo vetor que trazem no DTO
      */
-    private String generateVideoReason(RecommendedVideo video, UserState userState) {
-        List<String> reasons = new ArrayList<>();
-        
-        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
-            reasons.add("ajuda a reduzir o stress elevado");
-        }
-        
-        if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
-            reasons.add("promove calma e tranquilidade para ansiedade");
-        }
-        
-        if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
-            reasons.add("ajuda a aumentar a energia e vitalidade");
-        }
-        
-        int durationMinutes = video.getDurationSeconds() / 60;
-        if (durationMinutes < 15) {
-            reasons.add("duração perfeita para uma pausa rápida");
-        } else if (durationMinutes > 30) {
-            reasons.add("ideal para relaxamento profundo e imersivo");
-        }
-        
-        if ("poor".equals(userState.getSleepQuality())) {
-            reasons.add("pode melhorar a qualidade do sono");
-        }
-        
-        if (reasons.isEmpty()) {
-            return "Recomendado para seu bem-estar e equilíbrio";
+    private float[] semanticSimilarities(List<RecommendedVideo> videos, RuleOutcome rules) {
+        float[] query = semanticScorer.embed(rules.getTerms());
+        float[] similarities = videoCatalog.similarities(query, videos);
+        for (int index = 0; index < similarities.length; index++) {
+            if (Float.isNaN(similarities[index])) {
+                similarities[index] = semanticScorer.similarity(videos.get(index).getFeatures(), query);
+            }
         }
-        
-        return "Recomendado porque " + String.join(", ", reasons);
+        return similarities;
+    }
+
+    private boolean isSemanticRanking() {
+        return videoConverter.isSemanticRanking();
     }
 
     /**
-     * Agrupa vídeos por categoria baseado em análise semântica
+     * Agrupa vídeos por categoria: a da conversão (descrição completa, pacote do
+     * idioma do vídeo) ou, para vídeos sem ela, as palavras-chave do pacote do request
      */
-    private Map<String, List<RecommendedVideo>> groupByCategory(List<RecommendedVideo> videos) {
+    private Map<String, List<RecommendedVideo>> groupByCategory(List<RecommendedVideo> videos, String language) {
         Map<String, List<RecommendedVideo>> grouped = new HashMap<>();
         
         for (RecommendedVideo video : videos) {
-            String category = categorizeVideo(video);
+            String category = video.getCategory() != null
+                ? video.getCategory()
+                : ruleEngine.categorize(video.getTitle(), video.getDescription(), language);
             grouped.computeIfAbsent(category, k -> new ArrayList<>()).add(video);
         }
         
         return grouped;
     }
-
-    /**
-     * Categoriza vídeo baseado em análise de título, descrição e tags
-     */
-    private String categorizeVideo(RecommendedVideo video) {
-        String titleLower = video.getTitle().toLowerCase();
-        String descLower = video.getDescription() != null ? video.getDescription().toLowerCase() : "";
-        
-        if (titleLower.contains("natureza") || titleLower.contains("nature") || 
-            titleLower.contains("floresta") || titleLower.contains("oceano") ||
-            titleLower.contains("chuva") || titleLower.contains("pássaro") ||
-            descLower.contains("sons da natureza")) {
-            return "nature";
-        }
-        
-        if (titleLower.contains("meditação") || titleLower.contains("meditation") ||
-            titleLower.contains("mindfulness") || titleLower.contains("guiada") ||
-            descLower.contains("meditação")) {
-            return "meditation";
-        }
-        
-        if (titleLower.contains("respiração") || titleLower.contains("breathing") ||
-            titleLower.contains("pranayama") || titleLower.contains("respira") ||
-            descLower.contains("exercícios de respiração")) {
-            return "breathing";
-        }
-        
-        return "music";
-    }
-
-    /**
-     * Gera insights profundos sobre o usuário
-     */
-    private String generateInsights(UserState userState) {
-        StringBuilder insights = new StringBuilder();
-        
-        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
-            insights.append("Detectamos níveis elevados de stress (").append(userState.getStressLevel()).append("/10). ");
-        }
-        
-        if (userState.getCurrentStreak() != null && userState.getCurrentStreak() > 7) {
-            insights.append("Parabéns por manter sua rotina de bem-estar há ").append(userState.getCurrentStreak()).append(" dias! ");
-        }
-        
-        if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
-            insights.append("Sua energia está baixa (").append(userState.getEnergyLevel()).append("/10). Vídeos energizantes podem ajudar. ");
-        }
-        
-        if ("poor".equals(userState.getSleepQuality())) {
-            insights.append("Qualidade do sono pode melhorar com relaxamento antes de dormir. ");
-        }
-        
-        if (insights.length() == 0) {
-            insights.append("Continue sua jornada de bem-estar com conteúdo personalizado para você.");
-        }
-        
-        return insights.toString();
-    }
-
-    /**
-     * Gera sugestões personalizadas de bem-estar
-     */
-    private List<String> generateSuggestions(UserState userState) {
-        List<String> suggestions = new ArrayList<>();
-        
-        if (userState.getWaterIntake() != null && userState.getWaterIntake() < 2000) {
-            suggestions.add("💧 Lembre-se de se hidratar adequadamente (meta: 2L/dia)");
-        }
-        
-        if (userState.getPhysicalActivityMinutes() != null && userState.getPhysicalActivityMinutes() < 30) {
-            suggestions.add("🏃 Considere adicionar atividade física leve à sua rotina");
-        }
-        
-        if (userState.getAverageSleepHours() != null && userState.getAverageSleepHours() < 7) {
-            suggestions.add("😴 Priorize uma boa noite de sono (7-9 horas) para melhor recuperação");
-        }
-        
-        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
-            suggestions.add("🧘 Reserve 10-15 minutos diários para meditação guiada");
-        }
-        
-        suggestions.add("🙏 Pratique gratidão e reflexão pessoal diariamente");
-        suggestions.add("🌱 Mantenha consistência em sua rotina de bem-estar");
-        
-        return suggestions;
-    }
 }
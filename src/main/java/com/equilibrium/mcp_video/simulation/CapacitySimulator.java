@@ -0,0 +1,342 @@
+package com.equilibrium.mcp_video.simulation;
+
+import com.equilibrium.mcp_video.controller.YouTubeMCPToolController;
+import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.equilibrium.mcp_video.service.YouTubeRecommendationService;
+import com.equilibrium.mcp_video.simulation.SimulatorProperties.Scenario;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Simulador de capacidade dirigido por trace (profile "simulator")
+ *
+ * Reproduz um log de prompts do recommend_youtube_videos pela mesma extração
+ * de perfil e planejamento de queries do servidor, contra um backend do
+ * YouTube simulado, e compara cenários de TTL de cache, pré-aquecimento e
+ * limite de queries. Para cada cenário reporta chamadas à API, unidades de
+ * quota, hit ratio do cache e distribuição de latência, sem gastar quota real.
+ *
+ * O tempo é o do trace (não o relógio da máquina), então um dia de tráfego
+ * roda em segundos. O simulador assume que toda query planejada é emitida
+ * (limite superior: em produção o over-fetch pode parar antes) e ignora o
+ * tamanho de página, que não altera o custo de quota.
+ */
+@Slf4j
+@Component
+@Profile("simulator")
+@EnableConfigurationProperties(SimulatorProperties.class)
+@RequiredArgsConstructor
+public class CapacitySimulator implements ApplicationRunner {
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    private final YouTubeMCPToolController controller;
+    private final YouTubeRecommendationService youtubeService;
+    private final RecommendationRuleEngine ruleEngine;
+    private final SimulatorProperties properties;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (properties.getTrace() == null || properties.getTrace().isBlank()) {
+            throw new IllegalStateException("simulator.trace não configurado");
+        }
+        List<TracedRequest> trace = loadTrace(Path.of(properties.getTrace()));
+        log.info("🧪 Trace carregado: {} prompts de {}", trace.size(), properties.getTrace());
+
+        List<Report> reports = new ArrayList<>();
+        for (Scenario scenario : properties.getScenarios()) {
+            Report report = simulate(scenario, trace);
+            reports.add(report);
+            log.info("📈 {}", report.summary());
+        }
+        if (properties.getReportFile() != null && !properties.getReportFile().isBlank()) {
+            writeCsv(Path.of(properties.getReportFile()), reports);
+            log.info("💾 Relatório salvo em {}", properties.getReportFile());
+        }
+
+        // Ferramenta offline: encerra a JVM ao terminar (o scheduler mantém threads vivas)
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /**
+     * Lê o trace e já planeja as queries de cada prompt (as regras são determinísticas)
+     */
+    private List<TracedRequest> loadTrace(Path path) throws IOException {
+        List<TracedRequest> trace = new ArrayList<>();
+        long defaultGap = properties.getDefaultInterarrival().toMillis();
+        long previous = 0L;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String prompt = line;
+            Long timestamp = null;
+            if (line.trim().startsWith("{")) {
+                JsonNode node = objectMapper.readTree(line);
+                prompt = node.path("prompt").asText(null);
+                timestamp = parseTimestamp(node.get("timestamp"));
+            }
+            if (prompt == null || prompt.isBlank()) {
+                continue; // O servidor recusa prompts vazios sem chamar a API
+            }
+            long time = timestamp != null ? timestamp : previous + defaultGap;
+            previous = Math.max(previous, time);
+
+            VideoRecommendationRequest request = controller.buildRequest(prompt);
+            trace.add(new TracedRequest(
+                time,
+                youtubeService.planSearchQueries(request),
+                request.getPreferredDuration() != null ? request.getPreferredDuration() : "any",
+                request.getLanguage()
+            ));
+        }
+        trace.sort((a, b) -> Long.compare(a.timestamp, b.timestamp));
+        return trace;
+    }
+
+    private static Long parseTimestamp(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.asLong();
+        }
+        return Instant.parse(node.asText()).toEpochMilli();
+    }
+
+    /**
+     * Reproduz o trace em um cenário (sem Spring nem rede; o tempo é o do trace)
+     */
+    Report simulate(Scenario scenario, List<TracedRequest> trace) {
+        Random random = new Random(properties.getSeed());
+        // Um LRU por idioma, como o SearchResultCache
+        Map<String, SimulatedCache> caches = new HashMap<>();
+        Function<String, SimulatedCache> cacheFor = language -> caches.computeIfAbsent(String.valueOf(language),
+            k -> new SimulatedCache(scenario.getCacheMaxEntries(), scenario.getCacheTtl().toMillis()));
+        Report report = new Report(scenario.getName());
+        // Pré-aquecimento de cada idioma com as queries do seu pacote de regras,
+        // em cada faixa de duração (mesma chave query|duração dos requests)
+        Map<String, List<String>> prewarmQueries = new LinkedHashMap<>();
+        if (scenario.isPrewarm()) {
+            for (String language : scenario.getPrewarmLanguages()) {
+                prewarmQueries.put(language, ruleEngine.allQueries(language));
+            }
+        }
+        long prewarmInterval = Math.max(1L, scenario.getPrewarmInterval().toMillis());
+        long nextPrewarm = trace.isEmpty() ? Long.MAX_VALUE : trace.get(0).timestamp;
+        double[] latencies = new double[trace.size()];
+
+        for (int i = 0; i < trace.size(); i++) {
+            TracedRequest traced = trace.get(i);
+
+            // Pré-aquecimento periódico (fora do caminho do request, não conta na latência)
+            while (!prewarmQueries.isEmpty() && traced.timestamp >= nextPrewarm) {
+                for (Map.Entry<String, List<String>> pack : prewarmQueries.entrySet()) {
+                    SimulatedCache cache = cacheFor.apply(pack.getKey());
+                    for (String query : pack.getValue()) {
+                        for (String duration : scenario.getPrewarmDurations()) {
+                            cache.put(key(query, duration), nextPrewarm);
+                            report.prewarmCalls++;
+                        }
+                    }
+                }
+                nextPrewarm += prewarmInterval;
+            }
+
+            double latency = properties.getProcessingOverhead().toMillis();
+            int limit = Math.min(scenario.getMaxQueries(), traced.queries.size());
+            SimulatedCache cache = cacheFor.apply(traced.language);
+            for (String query : traced.queries.subList(0, limit)) {
+                String key = key(query, traced.duration);
+                if (cache.hit(key, traced.timestamp)) {
+                    report.cacheHits++;
+                    continue;
+                }
+                report.cacheMisses++;
+                report.liveCalls++;
+                latency += sampleLatency(random, properties.getSearchLatencyMedian().toMillis())
+                    + sampleLatency(random, properties.getVideosLatencyMedian().toMillis());
+                cache.put(key, traced.timestamp);
+            }
+            latencies[i] = latency;
+        }
+
+        report.requests = trace.size();
+        report.spanMs = trace.isEmpty() ? 0L : trace.get(trace.size() - 1).timestamp - trace.get(0).timestamp;
+        report.quotaUnits = (report.liveCalls + report.prewarmCalls)
+            * (long) (properties.getSearchQuotaUnits() + properties.getVideosQuotaUnits());
+        Arrays.sort(latencies);
+        report.latencies = latencies;
+        return report;
+    }
+
+    /**
+     * Latência log-normal em torno da mediana configurada
+     */
+    private double sampleLatency(Random random, long medianMs) {
+        return medianMs * Math.exp(properties.getLatencySigma() * random.nextGaussian());
+    }
+
+    private static String key(String query, String duration) {
+        return query + '|' + duration;
+    }
+
+    private void writeCsv(Path path, List<Report> reports) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("scenario,requests,search_calls,videos_calls,prewarm_calls,quota_units,quota_units_per_day,"
+            + "hit_ratio,p50_ms,p95_ms,p99_ms,max_ms");
+        for (Report report : reports) {
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.4f,%.0f,%.0f,%.0f,%.0f",
+                report.scenario,
+                report.requests,
+                report.liveCalls + report.prewarmCalls,
+                report.liveCalls + report.prewarmCalls,
+                report.prewarmCalls,
+                report.quotaUnits,
+                report.quotaUnitsPerDay(),
+                report.hitRatio(),
+                report.percentile(0.50),
+                report.percentile(0.95),
+                report.percentile(0.99),
+                report.percentile(1.0)));
+        }
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prompt do trace já convertido em queries planejadas
+     */
+    static final class TracedRequest {
+        private final long timestamp;
+        private final List<String> queries;
+        private final String duration;
+        private final String language;
+
+        TracedRequest(long timestamp, List<String> queries, String duration, String language) {
+            this.timestamp = timestamp;
+            this.queries = queries;
+            this.duration = duration;
+            this.language = language;
+        }
+    }
+
+    /**
+     * Cache LRU com TTL no tempo do trace (mesma política do SearchResultCache)
+     */
+    private static final class SimulatedCache {
+        private final int maxEntries;
+        private final long ttlMs;
+        private final LinkedHashMap<String, Long> expiresAt = new LinkedHashMap<>(256, 0.75f, true);
+
+        private SimulatedCache(int maxEntries, long ttlMs) {
+            this.maxEntries = maxEntries;
+            this.ttlMs = ttlMs;
+        }
+
+        private boolean hit(String key, long now) {
+            Long expiry = expiresAt.get(key);
+            if (expiry == null) {
+                return false;
+            }
+            if (expiry < now) {
+                expiresAt.remove(key);
+                return false;
+            }
+            return true;
+        }
+
+        private void put(String key, long now) {
+            if (ttlMs <= 0 || maxEntries <= 0) {
+                return; // Cenário sem cache
+            }
+            expiresAt.put(key, now + ttlMs);
+            if (expiresAt.size() > maxEntries) {
+                Iterator<String> eldest = expiresAt.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Resultado de um cenário
+     */
+    static final class Report {
+        private final String scenario;
+        private int requests;
+        private long spanMs;
+        private long liveCalls;
+        private long prewarmCalls;
+        private long cacheHits;
+        private long cacheMisses;
+        private long quotaUnits;
+        private double[] latencies = new double[0];
+
+        private Report(String scenario) {
+            this.scenario = scenario;
+        }
+
+        double hitRatio() {
+            long lookups = cacheHits + cacheMisses;
+            return lookups == 0 ? 0.0 : (double) cacheHits / lookups;
+        }
+
+        /**
+         * Quota projetada para 24h no mesmo ritmo do trace
+         */
+        private long quotaUnitsPerDay() {
+            return spanMs <= 0 ? quotaUnits : Math.round((double) quotaUnits * DAY_MS / spanMs);
+        }
+
+        long prewarmCalls() {
+            return prewarmCalls;
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, index))];
+        }
+
+        private String summary() {
+            return String.format(Locale.ROOT,
+                "Cenário %s: %d requests, %d search.list + %d videos.list (%d do pré-aquecimento), "
+                    + "%d unidades de quota (~%d/dia), hit ratio %.1f%%, latência p50 %.0fms p95 %.0fms "
+                    + "p99 %.0fms máx %.0fms",
+                scenario, requests,
+                liveCalls + prewarmCalls, liveCalls + prewarmCalls, prewarmCalls,
+                quotaUnits, quotaUnitsPerDay(), hitRatio() * 100,
+                percentile(0.50), percentile(0.95), percentile(0.99), percentile(1.0));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.equilibrium.mcp_video.simulation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração do simulador de capacidade (application-simulator.yml)
+ */
+@Data
+@ConfigurationProperties(prefix = "simulator")
+public class SimulatorProperties {
+
+    /**
+     * Trace JSONL de prompts: {"timestamp": "2026-10-01T12:00:00Z", "prompt": "..."}
+     */
+    private String trace;
+
+    /**
+     * CSV opcional com o relatório (uma linha por cenário)
+     */
+    private String reportFile;
+
+    /**
+     * Intervalo assumido entre prompts sem timestamp no trace
+     */
+    private Duration defaultInterarrival = Duration.ofSeconds(2);
+
+    /**
+     * Custo de quota por chamada (YouTube Data API v3)
+     */
+    private int searchQuotaUnits = 100;
+    private int videosQuotaUnits = 1;
+
+    /**
+     * Latência simulada do backend (log-normal: mediana e desvio do logaritmo)
+     */
+    private Duration searchLatencyMedian = Duration.ofMillis(350);
+    private Duration videosLatencyMedian = Duration.ofMillis(120);
+    private double latencySigma = 0.5;
+
+    /**
+     * Custo local por request (extração, ranqueamento e serialização)
+     */
+    private Duration processingOverhead = Duration.ofMillis(5);
+
+    /**
+     * Semente do gerador de latências (mesma semente, mesmo relatório)
+     */
+    private long seed = 42L;
+
+    private List<Scenario> scenarios = new ArrayList<>();
+
+    /**
+     * Configuração candidata a ser comparada
+     */
+    @Data
+    public static class Scenario {
+        private String name;
+
+        /**
+         * TTL do cache de busca (zero desliga o cache)
+         */
+        private Duration cacheTtl = Duration.ofHours(6);
+        private int cacheMaxEntries = 2000;
+
+        /**
+         * Máximo de queries de busca por request
+         */
+        private int maxQueries = 5;
+
+        /**
+         * Pré-aquecer o cache de cada idioma com todas as queries do seu pacote de regras
+         */
+        private boolean prewarm;
+        private Duration prewarmInterval = Duration.ofHours(6);
+        private List<String> prewarmLanguages = List.of("pt");
+
+        /**
+         * Faixas de duração pré-aquecidas: o cache de busca é por query e duração,
+         * então só aquece o que os requests procuram nas mesmas faixas
+         */
+        private List<String> prewarmDurations = List.of("short", "medium", "long");
+    }
+}
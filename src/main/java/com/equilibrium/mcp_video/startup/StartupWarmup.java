@@ -0,0 +1,74 @@
+package com.equilibrium.mcp_video.startup;
+
+import com.equilibrium.mcp_video.client.SyntheticYouTubeClient;
+import com.equilibrium.mcp_video.controller.YouTubeMCPToolController;
+import com.equilibrium.mcp_video.service.YouTubeRecommendationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Warm-up de JIT antes de liberar tráfego
+ *
+ * Executa chamadas sintéticas de recommend_youtube_videos contra um cliente
+ * do YouTube sem rede. ApplicationRunners rodam antes do ApplicationReadyEvent,
+ * então o readiness probe (/actuator/health/readiness) só fica UP depois que
+ * o caminho quente já foi compilado pelo JIT.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final List<String> PROMPTS = List.of(
+        "Usuário com idade: 30, peso: 75kg, altura: 175cm, gênero: masculino, stress: 8, ansiedade: 7, "
+            + "energia: 3, humor: ruim, nível: 5, streak: 10, calorias: 2000, sono: 5 horas, qualidade do sono: poor. "
+            + "Precisa de vídeos de meditação curtos.",
+        "Usuária de 42 anos, feminino, sedentário, objetivo: perder peso, stress: 4, ansiedade: 8, energia: 6, "
+            + "água: 1200ml, exercício: 10 minutos. Prefere sons da natureza, duração longa, idioma english.",
+        "Idade: 25, energia: 2, humor: ok, streak: 2, sono: 8 horas, qualidade excelente. "
+            + "Quer música para relaxar, máximo: 5.",
+        "Perfil: idade 55, stress 3, ansiedade 2, energia 7, bem-estar, respiração pranayama, médio, español."
+    );
+
+    private final YouTubeMCPToolController controller;
+    private final YouTubeRecommendationService youtubeService;
+
+    @Value("${youtube.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${youtube.warmup.iterations:200}")
+    private int iterations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || iterations <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        SyntheticYouTubeClient syntheticClient = new SyntheticYouTubeClient();
+        int completed = youtubeService.withClient(syntheticClient, () -> {
+            int calls = 0;
+            for (int i = 0; i < iterations; i++) {
+                try {
+                    controller.recommendYouTubeVideos(PROMPTS.get(i % PROMPTS.size()));
+                    calls++;
+                } catch (Exception e) {
+                    log.warn("⚠️ Falha no warm-up (ignorada)", e);
+                    break;
+                }
+            }
+            return calls;
+        });
+        log.info("🔥 Warm-up concluído: {} chamadas sintéticas em {}ms (JVM ativa há {}ms)",
+            completed,
+            System.currentTimeMillis() - start,
+            ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+}
@@ -0,0 +1,98 @@
+package com.equilibrium.mcp_video.rules;
+
+import com.equilibrium.mcp_video.dto.UserState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecommendationRuleEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private Path rules;
+    private RecommendationRuleEngine engine;
+    private UserState stressed;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rules = copy("recommendation-rules.yml");
+        copy("recommendation-rules-en.yml");
+        copy("recommendation-rules-es.yml");
+        engine = RecommendationRulesTest.engine("file:" + rules);
+        stressed = new UserState();
+        stressed.setStressLevel(8);
+    }
+
+    @Test
+    void invalidReloadKeepsThePreviousRules() throws IOException {
+        String before = firstQuery();
+
+        write(rules, "conditions:\n  broken: { field: nope, op: gt, value: 1 }\n");
+        engine.reloadIfChanged();
+
+        assertEquals(before, firstQuery());
+        assertEquals("music", engine.categorize("Piano", null, "pt"));
+    }
+
+    @Test
+    void validReloadReplacesTheRules() throws IOException {
+        String original = Files.readString(rules, StandardCharsets.UTF_8);
+        write(rules, original.replace("meditação guiada stress ansiedade reduzir português", "nova query de stress"));
+
+        engine.reloadIfChanged();
+
+        assertEquals("nova query de stress", firstQuery());
+    }
+
+    @Test
+    void invalidLanguagePackFailsTheWholeReload() throws IOException {
+        String before = firstQuery();
+        String original = Files.readString(rules, StandardCharsets.UTF_8);
+        write(rules, original.replace("meditação guiada stress ansiedade reduzir português", "nova query de stress"));
+        write(dir.resolve("recommendation-rules-en.yml"), "conditions: {}\n");
+
+        engine.reloadIfChanged();
+
+        assertEquals(before, firstQuery());
+    }
+
+    @Test
+    void invalidRulesAtStartupFailFast() throws IOException {
+        write(rules, "queries: []\n");
+
+        assertThrows(IllegalStateException.class, () -> RecommendationRulesTest.engine("file:" + rules));
+    }
+
+    private String firstQuery() {
+        return engine.evaluate(stressed, null, "pt").getQueries().get(0);
+    }
+
+    private Path copy(String name) throws IOException {
+        Path target = dir.resolve(name);
+        try (InputStream in = getClass().getResourceAsStream("/" + name)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    /**
+     * Grava e avança o mtime (a resolução do sistema de arquivos pode ser de segundos)
+     */
+    private static void write(Path file, String content) throws IOException {
+        FileTime previous = Files.getLastModifiedTime(file);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(previous.toMillis() + 5_000));
+    }
+}
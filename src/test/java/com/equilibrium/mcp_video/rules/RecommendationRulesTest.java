@@ -0,0 +1,358 @@
+package com.equilibrium.mcp_video.rules;
+
+import com.equilibrium.mcp_video.dto.UserState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A tabela recommendation-rules.yml (idioma padrão) precisa reproduzir as
+ * decisões do if/else que ela substituiu; os métodos baseline* abaixo são
+ * cópias desse código original e servem de oráculo.
+ */
+class RecommendationRulesTest {
+
+    private static final List<String> CATEGORIES = Arrays.asList(null, "nature", "meditation", "music", "breathing");
+    private static final List<String> TITLES = List.of(
+        "Meditação guiada para ansiedade e stress",
+        "Música relaxante profunda 4K",
+        "Yoga energizante para despertar com motivação",
+        "Respiração 4-7-8 guided breathing",
+        "Sons da natureza chuva na floresta ULTRA HD",
+        "Piano calmo para estudar"
+    );
+
+    private RecommendationRuleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = engine("classpath:recommendation-rules.yml");
+    }
+
+    @Test
+    void queriesMatchBaselineForEveryProfile() {
+        for (UserState state : profiles()) {
+            for (String category : CATEGORIES) {
+                RuleOutcome outcome = engine.evaluate(state, category, "pt");
+                assertEquals(baselineQueries(state, category), outcome.getQueries(), describe(state, category));
+            }
+        }
+    }
+
+    @Test
+    void keywordScoresMatchBaseline() {
+        for (UserState state : profiles()) {
+            RuleOutcome outcome = engine.evaluate(state, null, "pt");
+            for (String title : TITLES) {
+                String titleLower = title.toLowerCase();
+                int score = 0;
+                for (KeywordBoost boost : outcome.getBoosts()) {
+                    score += boost.score(titleLower);
+                }
+                for (KeywordBoost boost : outcome.getQualityBoosts()) {
+                    score += boost.score(titleLower);
+                }
+                assertEquals(baselineKeywordScore(state, titleLower), score, describe(state, null) + " / " + title);
+            }
+        }
+    }
+
+    @Test
+    void reasonsInsightsAndSuggestionsMatchBaseline() {
+        for (UserState state : profiles()) {
+            RuleOutcome outcome = engine.evaluate(state, null, "pt");
+            for (int minutes : new int[] {5, 20, 60}) {
+                String durationReason = minutes < 15 ? outcome.phrase("quickDuration", null)
+                    : minutes > 30 ? outcome.phrase("immersiveDuration", null)
+                    : null;
+                assertEquals(baselineReason(state, minutes), outcome.videoReason(durationReason), describe(state, null));
+            }
+            assertEquals(baselineInsights(state), engine.renderInsights(outcome, state, null), describe(state, null));
+            assertEquals(baselineSuggestions(state), outcome.getSuggestions(), describe(state, null));
+        }
+    }
+
+    @Test
+    void categoriesMatchBaseline() {
+        List<String> descriptions = Arrays.asList(null, "", "Sons da natureza para dormir",
+            "Uma meditação curta", "Exercícios de respiração diários", "Playlist de jazz");
+        for (String title : TITLES) {
+            for (String description : descriptions) {
+                assertEquals(baselineCategory(title, description), engine.categorize(title, description, "pt"),
+                    title + " / " + description);
+            }
+        }
+    }
+
+    @Test
+    void conditionsCompileToOneBitEach() {
+        RecommendationRules rules = RecommendationRules.compile(new Yaml().load(
+            getClass().getResourceAsStream("/recommendation-rules.yml")));
+        UserState stressed = new UserState();
+        stressed.setStressLevel(8);
+        UserState anxious = new UserState();
+        anxious.setAnxietyLevel(7);
+        UserState both = new UserState();
+        both.setStressLevel(8);
+        both.setAnxietyLevel(7);
+
+        long stressMask = rules.evaluate(stressed, null);
+        long anxietyMask = rules.evaluate(anxious, null);
+        assertEquals(1, Long.bitCount(stressMask & ~rules.evaluate(new UserState(), null)));
+        assertEquals(stressMask | anxietyMask, rules.evaluate(both, null));
+        assertEquals(0L, rules.evaluate(new UserState(), null) & (stressMask | anxietyMask));
+
+        // Mesma máscara, mesma instância; "unless" tira as queries de ansiedade quando há stress
+        assertSame(rules.outcome(stressMask), rules.outcome(rules.evaluate(stressed, null)));
+        assertTrue(rules.outcome(anxietyMask).getQueries().contains("exercícios respiração ansiedade guiado"));
+        assertFalse(rules.outcome(stressMask | anxietyMask).getQueries().contains("exercícios respiração ansiedade guiado"));
+    }
+
+    @Test
+    void languagePacksKeepTheDurationFragmentPosition() {
+        UserState state = new UserState();
+        state.setEnergyLevel(2);
+        state.setSleepQuality("poor");
+
+        RuleOutcome english = engine.evaluate(state, null, "en");
+
+        assertEquals("Recommended because it helps boost energy and vitality, "
+                + "it is the perfect length for a quick break, it can improve sleep quality",
+            english.videoReason(english.phrase("quickDuration", null)));
+    }
+
+    private List<UserState> profiles() {
+        List<UserState> profiles = new ArrayList<>();
+        for (Integer stress : Arrays.asList(null, 5, 8)) {
+            for (Integer anxiety : Arrays.asList(null, 7)) {
+                for (Integer energy : Arrays.asList(null, 3)) {
+                    for (String goal : Arrays.asList(null, "wellness", "lose")) {
+                        for (String sleepQuality : Arrays.asList(null, "poor")) {
+                            for (Double sleepHours : Arrays.asList(null, 5.5, 6.5)) {
+                                for (Integer streak : Arrays.asList(null, 10)) {
+                                    UserState state = new UserState();
+                                    state.setStressLevel(stress);
+                                    state.setAnxietyLevel(anxiety);
+                                    state.setEnergyLevel(energy);
+                                    state.setHealthGoal(goal);
+                                    state.setSleepQuality(sleepQuality);
+                                    state.setAverageSleepHours(sleepHours);
+                                    state.setCurrentStreak(streak);
+                                    state.setWaterIntake(streak == null ? 1500 : null);
+                                    state.setPhysicalActivityMinutes(stress == null ? 20 : 45);
+                                    profiles.add(state);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return profiles;
+    }
+
+    private static String describe(UserState state, String category) {
+        return state + " category=" + category;
+    }
+
+    static RecommendationRuleEngine engine(String location) {
+        RecommendationRuleEngine engine = new RecommendationRuleEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "location", location);
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "pt");
+        ReflectionTestUtils.setField(engine, "languages", List.of("en", "es"));
+        engine.load();
+        return engine;
+    }
+
+    // Oráculo: if/else anterior à tabela de regras (sem o limite de 5 queries, que hoje é do planejador)
+
+    private static List<String> baselineQueries(UserState userState, String category) {
+        List<String> queries = new ArrayList<>();
+        String language = "português";
+        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
+            queries.add("meditação guiada stress ansiedade reduzir " + language);
+            queries.add("música relaxante dormir profundo ondas cerebrais");
+            queries.add("sons da natureza chuva floresta relaxamento 4K");
+            queries.add("yoga nidra relaxamento profundo guiado");
+        } else if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
+            queries.add("exercícios respiração ansiedade guiado");
+            queries.add("meditação mindfulness presente momento");
+            queries.add("sons calmantes ansiedade relaxar mente");
+        } else if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
+            queries.add("yoga energizante manhã despertar");
+            queries.add("música motivacional energia positiva");
+            queries.add("meditação energia vital chakra");
+            queries.add("exercícios respiração energizantes pranayama");
+        }
+        if ("wellness".equals(userState.getHealthGoal())) {
+            queries.add("bem-estar holístico meditação saúde mental");
+            queries.add("estilo vida saudável relaxamento equilíbrio");
+        } else if ("lose".equals(userState.getHealthGoal())) {
+            queries.add("meditação perda peso visualização");
+            queries.add("relaxamento após exercício recuperação");
+        }
+        if ("poor".equals(userState.getSleepQuality())
+                || (userState.getAverageSleepHours() != null && userState.getAverageSleepHours() < 6)) {
+            queries.add("música dormir insônia sono profundo");
+            queries.add("meditação guiada dormir rápido");
+            queries.add("sons relaxantes dormir bebê 432hz");
+        }
+        if (category != null) {
+            switch (category) {
+                case "nature":
+                    queries.add("sons da natureza relaxamento 4K ultra HD");
+                    queries.add("floresta tropical chuva meditação 10 horas");
+                    queries.add("oceano ondas praia relaxar dormir");
+                    queries.add("pássaros cantando manhã natureza");
+                    break;
+                case "meditation":
+                    queries.add("meditação guiada " + language + " atenção plena");
+                    queries.add("mindfulness meditação iniciantes");
+                    queries.add("body scan relaxamento progressivo");
+                    queries.add("meditação chakras equilíbrio energia");
+                    break;
+                case "music":
+                    queries.add("música relaxante instrumental piano");
+                    queries.add("música ambiente meditação spa");
+                    queries.add("música clássica relaxar estudar");
+                    queries.add("lofi relaxante jazz suave");
+                    break;
+                case "breathing":
+                    queries.add("exercícios respiração guiada pranayama");
+                    queries.add("respiração 4-7-8 técnica dormir");
+                    queries.add("respiração profunda relaxamento stress");
+                    queries.add("wim hof método respiração energia");
+                    break;
+            }
+        }
+        if (userState.getCurrentStreak() != null && userState.getCurrentStreak() > 7) {
+            queries.add("meditação avançada mindfulness profundo");
+            queries.add("yoga intermediário relaxamento força");
+        } else {
+            queries.add("meditação iniciantes guiada simples");
+            queries.add("relaxamento básico começar agora");
+        }
+        return queries.stream().distinct().toList();
+    }
+
+    private static int baselineKeywordScore(UserState userState, String titleLower) {
+        int score = 0;
+        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
+            if (titleLower.contains("relaxa") || titleLower.contains("calma")) score += 15;
+            if (titleLower.contains("stress") || titleLower.contains("ansiedade")) score += 10;
+            if (titleLower.contains("profundo") || titleLower.contains("deep")) score += 8;
+        }
+        if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
+            if (titleLower.contains("energia") || titleLower.contains("motiv")) score += 15;
+            if (titleLower.contains("despertar") || titleLower.contains("energi")) score += 10;
+        }
+        if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
+            if (titleLower.contains("ansiedade") || titleLower.contains("anxiety")) score += 15;
+            if (titleLower.contains("respira") || titleLower.contains("breath")) score += 10;
+        }
+        if (titleLower.contains("4k") || titleLower.contains("hd") || titleLower.contains("ultra")) {
+            score += 5;
+        }
+        if (titleLower.contains("guiada") || titleLower.contains("guided")) {
+            score += 8;
+        }
+        return score;
+    }
+
+    private static String baselineReason(UserState userState, int durationMinutes) {
+        List<String> reasons = new ArrayList<>();
+        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
+            reasons.add("ajuda a reduzir o stress elevado");
+        }
+        if (userState.getAnxietyLevel() != null && userState.getAnxietyLevel() > 6) {
+            reasons.add("promove calma e tranquilidade para ansiedade");
+        }
+        if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
+            reasons.add("ajuda a aumentar a energia e vitalidade");
+        }
+        if (durationMinutes < 15) {
+            reasons.add("duração perfeita para uma pausa rápida");
+        } else if (durationMinutes > 30) {
+            reasons.add("ideal para relaxamento profundo e imersivo");
+        }
+        if ("poor".equals(userState.getSleepQuality())) {
+            reasons.add("pode melhorar a qualidade do sono");
+        }
+        if (reasons.isEmpty()) {
+            return "Recomendado para seu bem-estar e equilíbrio";
+        }
+        return "Recomendado porque " + String.join(", ", reasons);
+    }
+
+    private static String baselineInsights(UserState userState) {
+        StringBuilder insights = new StringBuilder();
+        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
+            insights.append("Detectamos níveis elevados de stress (").append(userState.getStressLevel()).append("/10). ");
+        }
+        if (userState.getCurrentStreak() != null && userState.getCurrentStreak() > 7) {
+            insights.append("Parabéns por manter sua rotina de bem-estar há ").append(userState.getCurrentStreak()).append(" dias! ");
+        }
+        if (userState.getEnergyLevel() != null && userState.getEnergyLevel() < 4) {
+            insights.append("Sua energia está baixa (").append(userState.getEnergyLevel()).append("/10). Vídeos energizantes podem ajudar. ");
+        }
+        if ("poor".equals(userState.getSleepQuality())) {
+            insights.append("Qualidade do sono pode melhorar com relaxamento antes de dormir. ");
+        }
+        if (insights.length() == 0) {
+            insights.append("Continue sua jornada de bem-estar com conteúdo personalizado para você.");
+        }
+        return insights.toString();
+    }
+
+    private static List<String> baselineSuggestions(UserState userState) {
+        List<String> suggestions = new ArrayList<>();
+        if (userState.getWaterIntake() != null && userState.getWaterIntake() < 2000) {
+            suggestions.add("💧 Lembre-se de se hidratar adequadamente (meta: 2L/dia)");
+        }
+        if (userState.getPhysicalActivityMinutes() != null && userState.getPhysicalActivityMinutes() < 30) {
+            suggestions.add("🏃 Considere adicionar atividade física leve à sua rotina");
+        }
+        if (userState.getAverageSleepHours() != null && userState.getAverageSleepHours() < 7) {
+            suggestions.add("😴 Priorize uma boa noite de sono (7-9 horas) para melhor recuperação");
+        }
+        if (userState.getStressLevel() != null && userState.getStressLevel() > 7) {
+            suggestions.add("🧘 Reserve 10-15 minutos diários para meditação guiada");
+        }
+        suggestions.add("🙏 Pratique gratidão e reflexão pessoal diariamente");
+        suggestions.add("🌱 Mantenha consistência em sua rotina de bem-estar");
+        return suggestions;
+    }
+
+    private static String baselineCategory(String title, String description) {
+        String titleLower = title.toLowerCase();
+        String descLower = description != null ? description.toLowerCase() : "";
+        if (titleLower.contains("natureza") || titleLower.contains("nature")
+                || titleLower.contains("floresta") || titleLower.contains("oceano")
+                || titleLower.contains("chuva") || titleLower.contains("pássaro")
+                || descLower.contains("sons da natureza")) {
+            return "nature";
+        }
+        if (titleLower.contains("meditação") || titleLower.contains("meditation")
+                || titleLower.contains("mindfulness") || titleLower.contains("guiada")
+                || descLower.contains("meditação")) {
+            return "meditation";
+        }
+        if (titleLower.contains("respiração") || titleLower.contains("breathing")
+                || titleLower.contains("pranayama") || titleLower.contains("respira")
+                || descLower.contains("exercícios de respiração")) {
+            return "breathing";
+        }
+        return "music";
+    }
+}
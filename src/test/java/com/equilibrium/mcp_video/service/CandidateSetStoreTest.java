@@ -0,0 +1,85 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateSetStoreTest {
+
+    private static final String BUCKET = CandidateSetStore.bucketKey(List.of("query a", "query b"), "medium", "pt");
+
+    private CandidateSetStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CandidateSetStore(TestVideos.converter());
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(store, "maxSets", 2);
+    }
+
+    @Test
+    void tokenRoundTripReturnsFreshCopiesOfTheCandidates() {
+        RecommendedVideo original = TestVideos.video("v1", "Piano", 600);
+        String token = store.put("alice", BUCKET, List.of(original, TestVideos.video("v2", "Chuva", 1200)));
+
+        List<RecommendedVideo> first = store.get(token, "alice", BUCKET);
+        first.get(0).setMatchScore(99);
+        List<RecommendedVideo> second = store.get(token, "alice", BUCKET);
+
+        assertEquals(List.of("v1", "v2"), first.stream().map(RecommendedVideo::getVideoId).toList());
+        assertEquals("Piano", second.get(0).getTitle());
+        assertEquals(VideoConverter.thumbnailUrl("v1"), second.get(0).getThumbnailUrl());
+        assertNotSame(first.get(0), second.get(0));
+        assertEquals(Integer.valueOf(75), second.get(0).getMatchScore()); // O ranking de um request não vaza para o próximo
+    }
+
+    @Test
+    void tokenIsBoundToUserAndBucket() {
+        String token = store.put("alice", BUCKET, List.of(TestVideos.video("v1", "Piano", 600)));
+
+        assertTrue(store.contains(token, "alice", BUCKET));
+        assertNull(store.get(token, "bob", BUCKET));
+        assertNull(store.get(token, "alice", CandidateSetStore.bucketKey(List.of("query a"), "medium", "pt")));
+        assertNull(store.get(token, "alice", CandidateSetStore.bucketKey(List.of("query a", "query b"), "long", "pt")));
+        assertNull(store.get(null, "alice", BUCKET));
+    }
+
+    @Test
+    void reusingATokenRefreshesItsExpiry() {
+        String token = store.put("alice", BUCKET, List.of(TestVideos.video("v1", "Piano", 600)));
+        Object entry = ((Map<?, ?>) ReflectionTestUtils.getField(store, "entries")).get(token);
+        long almostExpired = System.currentTimeMillis() + 1000;
+        ReflectionTestUtils.setField(entry, "expiresAt", almostExpired);
+
+        assertNull(store.get(token, "bob", BUCKET));
+        assertEquals(almostExpired, ReflectionTestUtils.getField(entry, "expiresAt")); // Só o uso válido renova
+
+        assertNotNull(store.get(token, "alice", BUCKET));
+        long expiresAt = (Long) ReflectionTestUtils.getField(entry, "expiresAt");
+        assertTrue(expiresAt > System.currentTimeMillis() + Duration.ofMinutes(29).toMillis());
+    }
+
+    @Test
+    void expiredAndEvictedTokensAreGone() {
+        String oldest = store.put("alice", BUCKET, List.of(TestVideos.video("v1", "Piano", 600)));
+        store.put("alice", BUCKET, List.of(TestVideos.video("v2", "Piano", 600)));
+        store.put("alice", BUCKET, List.of(TestVideos.video("v3", "Piano", 600)));
+        assertFalse(store.contains(oldest, "alice", BUCKET));
+
+        ReflectionTestUtils.setField(store, "ttl", Duration.ofMillis(-1));
+        String expired = store.put("alice", BUCKET, List.of(TestVideos.video("v4", "Piano", 600)));
+        assertNull(store.get(expired, "alice", BUCKET));
+    }
+}
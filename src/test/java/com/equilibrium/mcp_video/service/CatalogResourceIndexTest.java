@@ -0,0 +1,140 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResourceIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private VideoCatalog catalog;
+    private CatalogResourceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new VideoCatalog(TestVideos.converter(), new SemanticScorer());
+        ReflectionTestUtils.setField(catalog, "maxSize", 100);
+
+        RecommendationRuleEngine engine = TestVideos.ruleEngine();
+
+        ResponseWriter responseWriter = new ResponseWriter(objectMapper);
+        ReflectionTestUtils.setField(responseWriter, "defaultFormat", "full");
+        ReflectionTestUtils.invokeMethod(responseWriter, "init");
+
+        index = new CatalogResourceIndex(catalog, engine, responseWriter);
+        ReflectionTestUtils.setField(index, "pageSize", 3);
+    }
+
+    @Test
+    void followingCursorsVisitsEveryVideoOnceInOrder() throws Exception {
+        List<RecommendedVideo> videos = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            // Durações repetidas: o desempate é pelo videoId
+            videos.add(TestVideos.video("v" + i, "Piano " + i, 600 + (i % 3) * 60));
+        }
+        catalog.putAll(videos);
+
+        List<String> visited = readAll(CatalogResourceIndex.URI_PREFIX + "/all/any");
+
+        assertEquals(List.of("v0", "v3", "v6", "v1", "v4", "v7", "v2", "v5"), visited);
+    }
+
+    @Test
+    void cursorStaysValidAfterTheIndexIsRebuilt() throws Exception {
+        catalog.putAll(List.of(
+            TestVideos.video("a", "Piano a", 60),
+            TestVideos.video("b", "Piano b", 90),
+            TestVideos.video("c", "Piano c", 120),
+            TestVideos.video("d", "Piano d", 150)));
+        JsonNode first = page(CatalogResourceIndex.URI_PREFIX + "/all/short");
+
+        // Nova ingestão entre uma página e outra: um vídeo antes e outro depois do cursor
+        catalog.putAll(List.of(TestVideos.video("early", "Piano early", 30), TestVideos.video("late", "Piano late", 130)));
+        JsonNode second = page(first.get("next").asText());
+
+        assertEquals(List.of("a", "b", "c"), ids(first));
+        assertEquals(List.of("late", "d"), ids(second));
+        assertTrue(second.get("next").isNull());
+    }
+
+    @Test
+    void bucketsSplitByCategoryAndDuration() throws Exception {
+        catalog.putAll(List.of(
+            TestVideos.video("rain", "Sons de chuva na floresta", 120),
+            TestVideos.video("long-rain", "Chuva forte 10 horas", 36000),
+            TestVideos.video("piano", "Piano suave", 120)));
+
+        assertEquals(List.of("rain"), ids(page(CatalogResourceIndex.URI_PREFIX + "/nature/short")));
+        assertEquals(List.of("long-rain"), ids(page(CatalogResourceIndex.URI_PREFIX + "/nature/long")));
+        assertEquals(List.of("piano", "rain"), ids(page(CatalogResourceIndex.URI_PREFIX + "/all/short")));
+        assertEquals(3, page(CatalogResourceIndex.URI_PREFIX + "/all/any").get("total").asInt());
+    }
+
+    @Test
+    void rejectsUnknownBucketsAndMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> index.read(CatalogResourceIndex.URI_PREFIX + "/sports/any"));
+        assertThrows(IllegalArgumentException.class, () -> index.read(CatalogResourceIndex.URI_PREFIX + "/all/any/%%%"));
+        assertThrows(IllegalArgumentException.class, () -> index.read("youtube://other"));
+    }
+
+    @Test
+    void nextLinksStayUnderTheirConcreteBucketUri() throws Exception {
+        List<RecommendedVideo> videos = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            videos.add(TestVideos.video("v" + i, "Piano " + i, 600));
+        }
+        catalog.putAll(videos);
+        String bucket = CatalogResourceIndex.URI_PREFIX + "/all/medium";
+
+        // Só as URIs concretas são listadas; a página seguinte é lida pelo resource do próprio bucket
+        assertEquals(20, index.bucketUris().size());
+        assertTrue(index.bucketUris().contains(bucket));
+        assertTrue(CatalogResourceIndex.isPageOf(bucket, page(bucket).get("next").asText()));
+        assertTrue(CatalogResourceIndex.isPageOf(bucket, bucket));
+        assertFalse(CatalogResourceIndex.isPageOf(bucket, bucket + "/"));
+        assertFalse(CatalogResourceIndex.isPageOf(bucket, bucket + "/a/b"));
+        assertFalse(CatalogResourceIndex.isPageOf(bucket, CatalogResourceIndex.URI_PREFIX + "/all/medium-long"));
+    }
+
+    @Test
+    void categoriesComeFromTheRulesAndTheDirectoryStatesItsScope() throws Exception {
+        assertEquals(List.of("all", "nature", "meditation", "breathing", "music"), index.categories());
+
+        JsonNode directory = page(CatalogResourceIndex.URI_PREFIX);
+        assertEquals("curated-channels", directory.get("source").asText());
+        assertEquals(20, directory.get("buckets").size());
+    }
+
+    private List<String> readAll(String uri) throws Exception {
+        List<String> visited = new ArrayList<>();
+        String next = uri;
+        while (next != null) {
+            JsonNode page = page(next);
+            visited.addAll(ids(page));
+            next = page.get("next").isNull() ? null : page.get("next").asText();
+        }
+        return visited;
+    }
+
+    private JsonNode page(String uri) throws Exception {
+        return objectMapper.readTree(index.read(uri));
+    }
+
+    private static List<String> ids(JsonNode page) {
+        List<String> ids = new ArrayList<>();
+        page.get("videos").forEach(video -> ids.add(video.get("videoId").asText()));
+        return ids;
+    }
+}
@@ -0,0 +1,132 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.client.PlaylistPage;
+import com.equilibrium.mcp_video.client.YouTubeClient;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoContentDetails;
+import com.google.api.services.youtube.model.VideoSnippet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelIngestionServiceTest {
+
+    private final PlaylistClient client = new PlaylistClient();
+    private VideoCatalog catalog;
+    private ChannelIngestionService ingestion;
+
+    @BeforeEach
+    void setUp() {
+        VideoConverter converter = TestVideos.converter();
+        catalog = new VideoCatalog(converter, new SemanticScorer());
+        ReflectionTestUtils.setField(catalog, "maxSize", 100);
+
+        ingestion = new ChannelIngestionService(client, converter, catalog);
+        ReflectionTestUtils.setField(ingestion, "channelIds", List.of("UCcanal"));
+        ReflectionTestUtils.setField(ingestion, "maxPagesPerRun", 4);
+    }
+
+    @Test
+    void unchangedFirstPageStopsOnTheEtag() {
+        client.publish("e1", List.of("v3", "v2", "v1"));
+        ingestion.refreshChannels();
+        assertEquals(3, catalog.size());
+        assertNull(client.etags.get(0)); // Primeira execução sem ETag
+
+        client.etags.clear();
+        client.detailCalls.clear();
+        ingestion.refreshChannels();
+
+        assertEquals(List.of("e1"), client.etags);
+        assertTrue(client.detailCalls.isEmpty());
+        assertEquals(3, catalog.size());
+    }
+
+    @Test
+    void newUploadsStopAtTheNewestKnownVideo() {
+        client.publish("e1", List.of("v3", "v2", "v1"));
+        ingestion.refreshChannels();
+
+        // Upload novo: a primeira página muda e a playlist ganha uma segunda página
+        client.publish("e2", List.of("v4", "v3"), List.of("v2", "v1"));
+        client.playlistCalls = 0;
+        client.detailCalls.clear();
+        ingestion.refreshChannels();
+
+        assertEquals(1, client.playlistCalls); // Parou em v3 sem ler a segunda página
+        assertEquals(List.of(List.of("v4")), client.detailCalls);
+        assertTrue(catalog.contains("v4"));
+        assertEquals(4, catalog.size());
+    }
+
+    /**
+     * Playlist de uploads falsa com ETag na primeira página
+     */
+    private static final class PlaylistClient implements YouTubeClient {
+
+        private final List<String> etags = new ArrayList<>();
+        private final List<List<String>> detailCalls = new ArrayList<>();
+        private final Map<String, PlaylistPage> pages = new HashMap<>();
+        private String firstPageEtag;
+        private int playlistCalls;
+
+        @SafeVarargs
+        private void publish(String etag, List<String>... pageIds) {
+            pages.clear();
+            firstPageEtag = etag;
+            for (int i = 0; i < pageIds.length; i++) {
+                String next = i + 1 < pageIds.length ? "p" + (i + 1) : null;
+                pages.put(i == 0 ? null : "p" + i, new PlaylistPage(pageIds[i], next, i == 0 ? etag : null, false));
+            }
+        }
+
+        @Override
+        public boolean isConfigured() {
+            return true;
+        }
+
+        @Override
+        public List<String> searchVideoIds(String query, long maxResults, String videoDuration, String relevanceLanguage) {
+            return List.of();
+        }
+
+        @Override
+        public List<Video> getVideos(List<String> videoIds) {
+            detailCalls.add(List.copyOf(videoIds));
+            List<Video> videos = new ArrayList<>();
+            for (String id : videoIds) {
+                videos.add(new Video()
+                    .setId(id)
+                    .setSnippet(new VideoSnippet().setTitle("Sons da natureza " + id).setDescription("Relaxar"))
+                    .setContentDetails(new VideoContentDetails().setDuration("PT10M")));
+            }
+            return videos;
+        }
+
+        @Override
+        public String getUploadsPlaylistId(String channelId) {
+            return "UU" + channelId.substring(2);
+        }
+
+        @Override
+        public PlaylistPage getPlaylistItems(String playlistId, String pageToken, String etag) {
+            playlistCalls++;
+            if (pageToken == null) {
+                etags.add(etag);
+                if (firstPageEtag.equals(etag)) {
+                    return PlaylistPage.NOT_MODIFIED;
+                }
+            }
+            return pages.get(pageToken);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.equilibrium.mcp_video.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EngagementCountersTest {
+
+    private static final Duration HALF_LIFE = Duration.ofDays(7);
+
+    private EngagementCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = counters("");
+    }
+
+    @Test
+    void countsOneEventPerUserAndVideoPerFold() {
+        assertTrue(counters.recordPlay("alice", "video-1"));
+        assertFalse(counters.recordPlay("alice", "video-1"));
+        assertFalse(counters.recordSkip("alice", "video-1"));
+        assertTrue(counters.recordPlay("bob", "video-1"));
+        assertFalse(counters.recordPlay(null, "video-1"));
+
+        counters.fold();
+
+        assertEquals(2.0 / 12, counters.popularity("video-1"), 1e-6);
+        assertTrue(counters.recordPlay("alice", "video-1")); // Novo intervalo
+    }
+
+    @Test
+    void eventsOnlyCountAfterTheFold() {
+        counters.recordSkip("alice", "video-1");
+        assertEquals(0.0, counters.popularity("video-1"));
+
+        counters.fold();
+
+        assertEquals(-1.0 / 11, counters.popularity("video-1"), 1e-6);
+    }
+
+    @Test
+    void totalsHalveAfterOneHalfLife() {
+        counters.recordPlay("alice", "video-1");
+        counters.recordPlay("bob", "video-1");
+        counters.fold();
+
+        ReflectionTestUtils.setField(counters, "lastFold", System.currentTimeMillis() - HALF_LIFE.toMillis());
+        counters.fold();
+
+        // 2 plays viram ~1: 1 / (1 + 10)
+        assertEquals(1.0 / 11, counters.popularity("video-1"), 1e-4);
+    }
+
+    @Test
+    void decayedCountersAreForgotten() {
+        counters.recordPlay("alice", "video-1");
+        counters.fold();
+        assertEquals(1, counters.size());
+
+        ReflectionTestUtils.setField(counters, "lastFold", System.currentTimeMillis() - HALF_LIFE.toMillis() * 10);
+        counters.fold();
+
+        assertEquals(0, counters.size());
+        assertEquals(0.0, counters.popularity("video-1"));
+    }
+
+    @Test
+    void snapshotRoundTripKeepsTheTotals() throws Exception {
+        Path file = Files.createTempFile("engagement", ".bin");
+        try {
+            EngagementCounters writer = counters(file.toString());
+            writer.recordPlay("alice", "video-1");
+            writer.recordPlay("bob", "video-1");
+            writer.recordSkip("alice", "video-2");
+            writer.fold();
+            writer.writeSnapshot();
+
+            EngagementCounters reader = counters(file.toString());
+            ReflectionTestUtils.invokeMethod(reader, "loadSnapshot");
+
+            assertEquals(2, reader.size());
+            assertEquals(writer.popularity("video-1"), reader.popularity("video-1"), 1e-6);
+            assertEquals(writer.popularity("video-2"), reader.popularity("video-2"), 1e-6);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static EngagementCounters counters(String snapshotFile) {
+        EngagementCounters counters = new EngagementCounters();
+        ReflectionTestUtils.setField(counters, "enabled", true);
+        ReflectionTestUtils.setField(counters, "halfLife", HALF_LIFE);
+        ReflectionTestUtils.setField(counters, "maxVideos", 1000);
+        ReflectionTestUtils.setField(counters, "priorEvents", 10.0);
+        ReflectionTestUtils.setField(counters, "snapshotFile", snapshotFile);
+        ReflectionTestUtils.setField(counters, "maxPendingEvents", 1000);
+        return counters;
+    }
+}
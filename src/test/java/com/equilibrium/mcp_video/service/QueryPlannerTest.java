@@ -0,0 +1,121 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
+import com.equilibrium.mcp_video.rules.QueryOption;
+import com.equilibrium.mcp_video.rules.RuleOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryPlannerTest {
+
+    private static final String NATURE_A = "sons da natureza floresta";
+    private static final String NATURE_B = "chuva na natureza para dormir";
+    private static final String MEDITATION_A = "meditação guiada para stress";
+    private static final String MEDITATION_B = "meditação mindfulness curta";
+    private static final String BREATHING = "respiração profunda pranayama";
+
+    private SearchResultCache cache;
+    private QueryYieldTracker yieldTracker;
+    private QueryPlanner planner;
+    private VideoRecommendationRequest request;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(TestVideos.converter());
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+
+        yieldTracker = new QueryYieldTracker();
+        ReflectionTestUtils.setField(yieldTracker, "priorYield", 0.5);
+        ReflectionTestUtils.setField(yieldTracker, "smoothing", 1.0);
+        ReflectionTestUtils.setField(yieldTracker, "safetyFactor", 1.25);
+        ReflectionTestUtils.setField(yieldTracker, "minPageSize", 3);
+        ReflectionTestUtils.setField(yieldTracker, "minYield", 0.05);
+
+        planner = new QueryPlanner(cache, yieldTracker, TestVideos.ruleEngine());
+        ReflectionTestUtils.setField(planner, "maxQueries", 3);
+        ReflectionTestUtils.setField(planner, "liveCost", 101.0);
+        ReflectionTestUtils.setField(planner, "cachedCost", 1.0);
+        ReflectionTestUtils.setField(planner, "categoryWeight", 1.0);
+
+        request = new VideoRecommendationRequest();
+        request.setMaxResults(10);
+        request.setLanguage("pt");
+    }
+
+    @Test
+    void coversEverySignalBeforeRepeatingOne() {
+        List<String> plan = planner.plan(outcome(), request, "medium");
+
+        // Sinal de maior peso primeiro, depois um representante de cada sinal restante
+        assertEquals(List.of(NATURE_A, MEDITATION_A, BREATHING), plan);
+    }
+
+    @Test
+    void cachedQueryCoversItsSignalFirst() {
+        cache.put(MEDITATION_B, "medium", "pt", 50, List.of());
+
+        List<String> plan = planner.plan(outcome(), request, "medium");
+
+        assertEquals(List.of(MEDITATION_B, NATURE_A, BREATHING), plan);
+    }
+
+    @Test
+    void lowYieldQueryLosesToItsSibling() {
+        yieldTracker.record(NATURE_A, 50, 1);
+
+        List<String> plan = planner.plan(outcome(), request, "medium");
+
+        assertEquals(NATURE_B, plan.get(0));
+    }
+
+    @Test
+    void stopsOnceEverySignalIsCovered() {
+        ReflectionTestUtils.setField(planner, "maxQueries", 4);
+        cache.put(NATURE_B, "medium", "pt", 50, List.of());
+        cache.put(MEDITATION_B, "medium", "pt", 50, List.of());
+
+        List<String> plan = planner.plan(outcome(), request, "medium");
+
+        // NATURE_A está livre no limite, mas só repetiria um sinal já coberto
+        assertEquals(List.of(NATURE_B, MEDITATION_B, BREATHING), plan);
+    }
+
+    @Test
+    void profileCoveredByOneCachedQueryPlansOneQuery() {
+        cache.put(NATURE_B, "medium", "pt", 50, List.of());
+        RuleOutcome natureOnly = outcome(List.of(
+            new QueryOption(NATURE_A, 0, 3.0),
+            new QueryOption(NATURE_B, 0, 3.0)
+        ));
+
+        List<String> plan = planner.plan(natureOnly, request, "medium");
+
+        assertEquals(List.of(NATURE_B), plan);
+    }
+
+    /**
+     * Três sinais: natureza (peso 3), meditação (peso 2) e respiração (peso 1)
+     */
+    private static RuleOutcome outcome() {
+        return outcome(List.of(
+            new QueryOption(NATURE_A, 0, 3.0),
+            new QueryOption(NATURE_B, 0, 3.0),
+            new QueryOption(MEDITATION_A, 1, 2.0),
+            new QueryOption(MEDITATION_B, 1, 2.0),
+            new QueryOption(BREATHING, 2, 1.0)
+        ));
+    }
+
+    private static RuleOutcome outcome(List<QueryOption> options) {
+        List<String> queries = options.stream().map(QueryOption::getQuery).toList();
+        return new RuleOutcome(0L, queries, options, List.of(), List.of(), "", List.of(), List.of(), List.of(), Map.of());
+    }
+}
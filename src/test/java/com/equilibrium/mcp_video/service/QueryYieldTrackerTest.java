@@ -0,0 +1,60 @@
+package com.equilibrium.mcp_video.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryYieldTrackerTest {
+
+    private QueryYieldTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new QueryYieldTracker();
+        ReflectionTestUtils.setField(tracker, "priorYield", 0.5);
+        ReflectionTestUtils.setField(tracker, "smoothing", 0.5);
+        ReflectionTestUtils.setField(tracker, "safetyFactor", 1.25);
+        ReflectionTestUtils.setField(tracker, "minPageSize", 3);
+        ReflectionTestUtils.setField(tracker, "minYield", 0.05);
+    }
+
+    @Test
+    void unknownQueryUsesThePriorYield() {
+        // 4 / 0.5 * 1.25 = 10
+        assertEquals(10, tracker.pageSize("piano", 4));
+        assertEquals(5.0, tracker.expectedSurvivors("piano", 10), 1e-9);
+    }
+
+    @Test
+    void firstSampleSetsTheYieldAndLaterSamplesAreSmoothed() {
+        tracker.record("piano", 10, 2);
+        assertEquals(2.0, tracker.expectedSurvivors("piano", 10), 1e-9);
+
+        tracker.record("piano", 10, 6);
+
+        // 0.2 + 0.5 * (0.6 - 0.2) = 0.4
+        assertEquals(4.0, tracker.expectedSurvivors("piano", 10), 1e-9);
+        assertEquals(13, tracker.pageSize("piano", 4)); // ceil(4 / 0.4 * 1.25)
+    }
+
+    @Test
+    void pageSizeStaysWithinTheFloorAndTheApiLimit() {
+        assertEquals(3, tracker.pageSize("piano", 1));
+
+        // Nenhum sobrevivente: rendimento vai ao mínimo e a página ao limite da API
+        tracker.record("chuva", 10, 0);
+        assertEquals(0.5, tracker.expectedSurvivors("chuva", 10), 1e-9);
+        assertEquals(50, tracker.pageSize("chuva", 5));
+    }
+
+    @Test
+    void emptyFetchesAreIgnoredAndYieldIsCappedAtOne() {
+        tracker.record("piano", 0, 0);
+        assertEquals(10, tracker.pageSize("piano", 4));
+
+        tracker.record("yoga", 5, 9); // Amostra inconsistente: mais sobreviventes que buscados
+        assertEquals(5.0, tracker.expectedSurvivors("yoga", 5), 1e-9);
+    }
+}
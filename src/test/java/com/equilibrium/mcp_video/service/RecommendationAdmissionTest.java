@@ -0,0 +1,81 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.service.RecommendationAdmission.Lane;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecommendationAdmissionTest {
+
+    private RecommendationAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        admission = new RecommendationAdmission();
+        ReflectionTestUtils.setField(admission, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(admission, "maxQueued", 1);
+        ReflectionTestUtils.setField(admission, "maxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(admission, "cacheMaxConcurrent", 2);
+        ReflectionTestUtils.invokeMethod(admission, "init");
+    }
+
+    @Test
+    void cacheLaneIsNotBlockedByTheLiveLane() {
+        ReflectionTestUtils.setField(admission, "maxQueued", 0);
+        assertTrue(admission.tryAcquire(Lane.LIVE));
+
+        // LIVE sem vaga nem fila: recusa na hora, mas a fila CACHE segue atendendo
+        assertFalse(admission.tryAcquire(Lane.LIVE));
+        assertTrue(admission.tryAcquire(Lane.CACHE));
+        assertTrue(admission.tryAcquire(Lane.CACHE));
+        assertFalse(admission.tryAcquire(Lane.CACHE)); // Limite próprio da fila CACHE
+
+        admission.release(Lane.CACHE);
+        assertTrue(admission.tryAcquire(Lane.CACHE));
+        assertEquals(1, admission.rejectedCount()); // Só recusas da fila LIVE contam
+    }
+
+    @Test
+    void liveRequestsBeyondMaxQueuedAreShedImmediately() throws Exception {
+        assertTrue(admission.tryAcquire(Lane.LIVE));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> admission.tryAcquire(Lane.LIVE));
+        awaitQueued(1);
+
+        // Fila cheia: recusa sem esperar max-wait
+        long start = System.nanoTime();
+        assertFalse(admission.tryAcquire(Lane.LIVE));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, admission.rejectedCount());
+
+        // Quem estava na fila recebe a vaga liberada
+        admission.release(Lane.LIVE);
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void queuedLiveRequestGivesUpAfterMaxWait() {
+        ReflectionTestUtils.setField(admission, "maxWait", Duration.ofMillis(50));
+        assertTrue(admission.tryAcquire(Lane.LIVE));
+
+        assertFalse(admission.tryAcquire(Lane.LIVE));
+        assertEquals(1, admission.rejectedCount());
+    }
+
+    private void awaitQueued(int expected) throws InterruptedException {
+        AtomicInteger liveQueued = (AtomicInteger) ReflectionTestUtils.getField(admission, "liveQueued");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (liveQueued.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, liveQueued.get());
+    }
+}
@@ -0,0 +1,82 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse;
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.VideoRecommendation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseWriterTest {
+
+    private static final String DESCRIPTION = "Sons de chuva na floresta para relaxar e dormir melhor. ".repeat(5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResponseWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new ResponseWriter(objectMapper);
+        ReflectionTestUtils.setField(writer, "defaultFormat", "full");
+        ReflectionTestUtils.setField(writer, "compactDescriptionChars", 120);
+        ReflectionTestUtils.setField(writer, "compactMaxTags", 3);
+        ReflectionTestUtils.invokeMethod(writer, "init");
+    }
+
+    @Test
+    void compactVideoDropsDerivedUrlsAndTrimsDescriptionAndTags() throws Exception {
+        JsonNode video = firstVideo(writer.write(response(), ResponseWriter.COMPACT));
+
+        assertEquals("v1", video.get("videoId").asText());
+        assertFalse(video.has("thumbnailUrl"));
+        assertFalse(video.has("contentUrl"));
+        assertEquals(3, video.get("tags").size());
+        assertEquals(75, video.get("matchScore").asInt());
+
+        // Corte no último espaço antes do limite, sem quebrar palavra
+        String description = video.get("description").asText();
+        assertTrue(description.endsWith("…"));
+        assertTrue(description.length() <= 121);
+        assertTrue(DESCRIPTION.startsWith(description.substring(0, description.length() - 1) + " "));
+    }
+
+    @Test
+    void fullFormatIsTheDefaultAndKeepsEveryField() throws Exception {
+        assertEquals(ResponseWriter.FULL, writer.defaultFormat());
+
+        JsonNode video = firstVideo(writer.write(response(), null));
+
+        assertEquals(VideoConverter.thumbnailUrl("v1"), video.get("thumbnailUrl").asText());
+        assertEquals(VideoConverter.contentUrl("v1"), video.get("contentUrl").asText());
+        assertEquals(DESCRIPTION, video.get("description").asText());
+        assertEquals(5, video.get("tags").size());
+        assertFalse(video.has("features"));
+    }
+
+    private JsonNode firstVideo(String json) throws Exception {
+        return objectMapper.readTree(json).get("recommendations").get(0).get("videos").get(0);
+    }
+
+    private static VideoRecommendationResponse response() {
+        RecommendedVideo video = TestVideos.video("v1", "Chuva na floresta", 600);
+        video.setDescription(DESCRIPTION);
+        video.setThumbnailUrl(VideoConverter.thumbnailUrl("v1"));
+        video.setContentUrl(VideoConverter.contentUrl("v1"));
+        video.setTags(List.of("chuva", "floresta", "dormir", "relaxar", "natureza"));
+
+        VideoRecommendationResponse response = new VideoRecommendationResponse();
+        response.setRecommendations(List.of(new VideoRecommendation("nature", List.of(video))));
+        response.setInsights("-");
+        response.setSuggestions(List.of());
+        response.setProcessingTimeMs(1L);
+        return response;
+    }
+}
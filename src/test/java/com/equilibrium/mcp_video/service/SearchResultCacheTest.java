@@ -0,0 +1,108 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchResultCacheTest {
+
+    private final VideoConverter converter = TestVideos.converter();
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(converter);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    @Test
+    void roundTripMaterializesTheCachedPage() {
+        cache.put("piano", "medium", "pt", 10, compact(10));
+
+        List<RecommendedVideo> page = cache.get("piano", "medium", "pt", 4);
+
+        assertEquals(List.of("v0", "v1", "v2", "v3"), page.stream().map(RecommendedVideo::getVideoId).toList());
+        assertEquals(VideoConverter.contentUrl("v0"), page.get(0).getContentUrl());
+        assertEquals(List.of("relax"), page.get(0).getTags());
+    }
+
+    @Test
+    void entryOnlyServesPagesItCovers() {
+        cache.put("piano", "medium", "pt", 5, compact(5));
+        cache.put("chuva", "medium", "pt", 10, compact(3)); // Query esgotada: menos que o pedido
+
+        assertTrue(cache.contains("piano", "medium", "pt", 5));
+        assertFalse(cache.contains("piano", "medium", "pt", 6));
+        assertNull(cache.get("piano", "medium", "pt", 6));
+        assertEquals(3, cache.get("chuva", "medium", "pt", 50).size());
+    }
+
+    @Test
+    void smallerPageDoesNotReplaceALargerValidOne() {
+        cache.put("piano", "medium", "pt", 10, compact(10));
+        cache.put("piano", "medium", "pt", 4, compact(4));
+
+        assertTrue(cache.contains("piano", "medium", "pt", 10));
+
+        // Página maior expirada: a menor entra no lugar
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMillis(-1));
+        cache.put("chuva", "medium", "pt", 10, compact(10));
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofHours(1));
+        cache.put("chuva", "medium", "pt", 4, compact(4));
+
+        assertTrue(cache.contains("chuva", "medium", "pt", 4));
+        assertFalse(cache.contains("chuva", "medium", "pt", 10));
+    }
+
+    @Test
+    void keysIncludeDurationAndLanguage() {
+        cache.put("piano", "medium", "pt", 5, compact(5));
+
+        assertNull(cache.get("piano", "long", "pt", 5));
+        assertNull(cache.get("piano", "medium", "en", 5));
+        assertNotNull(cache.get("piano", "medium", "pt", 5));
+    }
+
+    @Test
+    void languagesHaveIndependentLruSegments() {
+        cache.put("a", "medium", "pt", 5, compact(1));
+        cache.put("b", "medium", "pt", 5, compact(1));
+        cache.put("x", "medium", "en", 5, compact(1));
+        cache.get("a", "medium", "pt", 5); // "a" passa a ser o mais recente
+        cache.put("c", "medium", "pt", 5, compact(1));
+
+        assertTrue(cache.contains("a", "medium", "pt", 1));
+        assertFalse(cache.contains("b", "medium", "pt", 1));
+        assertTrue(cache.contains("x", "medium", "en", 1));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void expiredEntriesAreDropped() {
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMillis(-1));
+        cache.put("piano", "medium", "pt", 5, compact(5));
+
+        assertNull(cache.get("piano", "medium", "pt", 5));
+        assertEquals(0, cache.size());
+    }
+
+    private List<CatalogVideo> compact(int count) {
+        List<CatalogVideo> videos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            videos.add(converter.compact(TestVideos.video("v" + i, "Piano " + i, 600)));
+        }
+        return videos;
+    }
+}
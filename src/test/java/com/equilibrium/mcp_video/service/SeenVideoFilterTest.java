@@ -0,0 +1,122 @@
+package com.equilibrium.mcp_video.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeenVideoFilterTest {
+
+    private SeenVideoFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SeenVideoFilter();
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxUsers", 100);
+        ReflectionTestUtils.setField(filter, "idleTtl", Duration.ofDays(30));
+    }
+
+    @Test
+    void marksAndFindsSeenVideosPerUser() {
+        filter.markSeen("alice", List.of("video-1", "video-2"));
+
+        assertTrue(filter.mightContain("alice", "video-1"));
+        assertTrue(filter.mightContain("alice", "video-2"));
+        assertFalse(filter.mightContain("alice", "video-3"));
+        assertFalse(filter.mightContain("bob", "video-1"));
+    }
+
+    @Test
+    void batchThatSaturatesTheFilterStaysVisibleAfterRotation() {
+        // Muito além de uma geração (~177 vídeos): força várias rotações
+        for (int batch = 0; batch < 100; batch++) {
+            List<String> ids = batch(batch);
+            filter.markSeen("alice", ids);
+            for (String id : ids) {
+                assertTrue(filter.mightContain("alice", id), "lote " + batch + " perdido: " + id);
+            }
+        }
+    }
+
+    @Test
+    void oldestVideosAreForgottenAfterRotations() {
+        for (int batch = 0; batch < 100; batch++) {
+            filter.markSeen("alice", batch(batch));
+        }
+        // Restam falsos positivos ocasionais, nunca o lote inteiro
+        assertTrue(countSeen("alice", batch(0)) < batch(0).size() / 2);
+    }
+
+    @Test
+    void fullArenaEvictsLeastRecentlyActiveUsers() throws InterruptedException {
+        for (int user = 0; user < 100; user++) {
+            filter.markSeen("user-" + user, List.of("video-" + user));
+            if (user == 0) {
+                Thread.sleep(5); // user-0 é o menos recente
+            }
+        }
+        assertEquals(100, filter.size());
+
+        filter.markSeen("newcomer", List.of("video-new"));
+
+        assertTrue(filter.mightContain("newcomer", "video-new"));
+        assertFalse(filter.mightContain("user-0", "video-0"));
+        assertTrue(filter.mightContain("user-99", "video-99"));
+        assertTrue(filter.size() <= 100);
+    }
+
+    @Test
+    void idleUsersAreEvictedAndTheirSlotsReused() {
+        filter.markSeen("alice", List.of("video-1"));
+        ReflectionTestUtils.setField(filter, "idleTtl", Duration.ofMillis(-1));
+
+        filter.evictIdle();
+
+        assertEquals(0, filter.size());
+        assertFalse(filter.mightContain("alice", "video-1"));
+
+        ReflectionTestUtils.setField(filter, "idleTtl", Duration.ofDays(30));
+        filter.markSeen("bob", List.of("video-2"));
+        assertFalse(filter.mightContain("bob", "video-1"));
+        assertTrue(filter.mightContain("bob", "video-2"));
+    }
+
+    @Test
+    void freshSlotSurvivesEvictionBeforeItsFirstMark() {
+        // Slot alocado sem markSeen ainda (o que um evictIdle concorrente veria)
+        Integer slot = (Integer) ReflectionTestUtils.invokeMethod(filter, "slotFor", "alice");
+
+        filter.evictIdle();
+
+        assertEquals(1, filter.size());
+        filter.markSeen("alice", List.of("video-1"));
+        assertEquals(slot, ReflectionTestUtils.invokeMethod(filter, "slotFor", "alice"));
+        assertTrue(filter.mightContain("alice", "video-1"));
+    }
+
+    private int countSeen(String userId, List<String> ids) {
+        int seen = 0;
+        for (String id : ids) {
+            if (filter.mightContain(userId, id)) {
+                seen++;
+            }
+        }
+        return seen;
+    }
+
+    private static List<String> batch(int batch) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add("video-" + batch + "-" + i);
+        }
+        return ids;
+    }
+}
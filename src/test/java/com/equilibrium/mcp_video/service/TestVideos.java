@@ -0,0 +1,51 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * Componentes e vídeos de teste montados sem contexto Spring
+ */
+final class TestVideos {
+
+    private TestVideos() {
+    }
+
+    /**
+     * Regras do classpath com os pacotes en e es, como na configuração padrão
+     */
+    static RecommendationRuleEngine ruleEngine() {
+        RecommendationRuleEngine engine = new RecommendationRuleEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "location", "classpath:recommendation-rules.yml");
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "pt");
+        ReflectionTestUtils.setField(engine, "languages", List.of("en", "es"));
+        ReflectionTestUtils.invokeMethod(engine, "load");
+        return engine;
+    }
+
+    static VideoConverter converter() {
+        VideoConverter converter = new VideoConverter(new SemanticScorer(), ruleEngine());
+        ReflectionTestUtils.setField(converter, "rankingMode", "keyword");
+        ReflectionTestUtils.setField(converter, "descriptionChars", 280);
+        ReflectionTestUtils.setField(converter, "maxTags", 15);
+        ReflectionTestUtils.setField(converter, "dictionaryMaxSize", 1000);
+        return converter;
+    }
+
+    static RecommendedVideo video(String id, String title, int durationSeconds) {
+        RecommendedVideo video = new RecommendedVideo();
+        video.setVideoId(id);
+        video.setTitle(title);
+        video.setDescription("Descrição de " + title);
+        video.setChannelTitle("Canal");
+        video.setDurationSeconds(durationSeconds);
+        video.setTags(List.of("relax"));
+        video.setMatchScore(75);
+        video.setReason("-");
+        return video;
+    }
+}
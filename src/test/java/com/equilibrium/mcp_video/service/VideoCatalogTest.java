@@ -0,0 +1,94 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoCatalogTest {
+
+    private final SemanticScorer scorer = new SemanticScorer();
+    private VideoCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        VideoConverter converter = new VideoConverter(scorer, TestVideos.ruleEngine());
+        ReflectionTestUtils.setField(converter, "rankingMode", "semantic");
+        ReflectionTestUtils.setField(converter, "descriptionChars", 280);
+        ReflectionTestUtils.setField(converter, "maxTags", 15);
+        ReflectionTestUtils.setField(converter, "dictionaryMaxSize", 1000);
+        catalog = new VideoCatalog(converter, scorer);
+        ReflectionTestUtils.setField(catalog, "maxSize", 3);
+    }
+
+    @Test
+    void catalogSimilaritiesMatchRowWiseDotProduct() {
+        RecommendedVideo rain = video("rain", "Sons de chuva para dormir");
+        RecommendedVideo yoga = video("yoga", "Yoga matinal energizante");
+        catalog.putAll(List.of(rain, yoga));
+        float[] query = scorer.embed("chuva dormir sono");
+
+        List<RecommendedVideo> candidates = catalog.candidates(10, null);
+        float[] scores = catalog.similarities(query, candidates);
+
+        assertEquals(2, candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            RecommendedVideo expected = candidates.get(i).getVideoId().equals("rain") ? rain : yoga;
+            assertNull(candidates.get(i).getFeatures()); // Vetores ficam só na matriz
+            assertEquals(scorer.similarity(expected.getFeatures(), query), scores[i], 1e-5f);
+        }
+        assertTrue(scores[indexOf(candidates, "rain")] > scores[indexOf(candidates, "yoga")]);
+    }
+
+    @Test
+    void videosOutsideTheCatalogAreLeftForTheCaller() {
+        catalog.putAll(List.of(video("rain", "Sons de chuva")));
+
+        float[] scores = catalog.similarities(scorer.embed("chuva"),
+            List.of(video("search-result", "Chuva na floresta")));
+
+        assertTrue(Float.isNaN(scores[0]));
+    }
+
+    @Test
+    void rebuildKeepsVectorsOfRetainedVideosAndDropsEvictedOnes() {
+        RecommendedVideo first = video("first", "Meditação guiada para iniciantes");
+        catalog.putAll(List.of(first));
+        catalog.putAll(List.of(video("second", "Piano relaxante"), video("third", "Ondas do mar")));
+        float[] query = scorer.embed("meditação guiada");
+
+        float[] retained = catalog.similarities(query, List.of(catalog.candidates(3, null).get(2)));
+        assertEquals(scorer.similarity(first.getFeatures(), query), retained[0], 1e-5f);
+
+        catalog.putAll(List.of(video("fourth", "Respiração 4-7-8")));
+        float[] evicted = catalog.similarities(query, List.of(first));
+        assertTrue(Float.isNaN(evicted[0]));
+        assertEquals(3, catalog.size());
+    }
+
+    private RecommendedVideo video(String id, String title) {
+        RecommendedVideo video = new RecommendedVideo();
+        video.setVideoId(id);
+        video.setTitle(title);
+        video.setDescription(title);
+        video.setDurationSeconds(600);
+        video.setTags(List.of());
+        video.setFeatures(scorer.embedVideo(title, List.of(), title));
+        return video;
+    }
+
+    private static int indexOf(List<RecommendedVideo> videos, String id) {
+        for (int i = 0; i < videos.size(); i++) {
+            if (videos.get(i).getVideoId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse.RecommendedVideo;
+import com.google.api.services.youtube.model.Thumbnail;
+import com.google.api.services.youtube.model.ThumbnailDetails;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoContentDetails;
+import com.google.api.services.youtube.model.VideoSnippet;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VideoConverterTest {
+
+    private final VideoConverter converter = TestVideos.converter();
+
+    @Test
+    void thumbnailIsDerivedFromTheVideoId() {
+        Video withoutHigh = video("no-high", new ThumbnailDetails().setDefault(new Thumbnail().setUrl("x")));
+        Video withoutThumbnails = video("no-thumbs", null);
+
+        assertEquals(VideoConverter.thumbnailUrl("no-high"), converter.convert(withoutHigh).getThumbnailUrl());
+        assertEquals(VideoConverter.thumbnailUrl("no-thumbs"), converter.convert(withoutThumbnails).getThumbnailUrl());
+    }
+
+    @Test
+    void convertAllSkipsIncompleteItemsAndKeepsTheRest() {
+        Video withoutSnippet = new Video().setId("no-snippet").setContentDetails(new VideoContentDetails().setDuration("PT5M"));
+        Video withoutDetails = new Video().setId("no-details").setSnippet(new VideoSnippet().setTitle("Piano"));
+
+        List<RecommendedVideo> converted = converter.convertAll(
+            List.of(video("first", null), withoutSnippet, withoutDetails, video("last", null)));
+
+        assertEquals(List.of("first", "last"), converted.stream().map(RecommendedVideo::getVideoId).toList());
+        assertEquals(Integer.valueOf(300), converted.get(0).getDurationSeconds());
+    }
+
+    @Test
+    void categoryComesFromTheFullDescriptionAndSurvivesCompaction() {
+        // Palavra-chave da categoria depois dos 280 caracteres guardados
+        String description = "Um momento de pausa. ".repeat(15) + "Sons da natureza";
+        Video video = new Video()
+            .setId("late-keyword")
+            .setSnippet(new VideoSnippet().setTitle("Momento tranquilo").setDescription(description))
+            .setContentDetails(new VideoContentDetails().setDuration("PT10M"));
+
+        RecommendedVideo cached = converter.materialize(converter.compact(converter.convert(video)));
+
+        assertTrue(cached.getDescription().length() < description.length());
+        assertEquals("nature", cached.getCategory());
+    }
+
+    @Test
+    void cachedFeaturesAreQuantizedToOneBytePerDimension() {
+        SemanticScorer scorer = new SemanticScorer();
+        ReflectionTestUtils.setField(converter, "rankingMode", "semantic");
+        RecommendedVideo original = converter.convert(video("rain", null));
+
+        CatalogVideo compact = converter.compact(original);
+        float[] restored = converter.materialize(compact).getFeatures();
+
+        assertEquals(SemanticScorer.DIMENSIONS, compact.getFeatures().length);
+        assertEquals(1f, scorer.similarity(original.getFeatures(), restored), 1e-3f);
+        float[] query = scorer.embed("piano relaxante");
+        assertEquals(scorer.similarity(original.getFeatures(), query), scorer.similarity(restored, query), 1e-2f);
+    }
+
+    private static Video video(String id, ThumbnailDetails thumbnails) {
+        return new Video()
+            .setId(id)
+            .setSnippet(new VideoSnippet().setTitle("Piano " + id).setDescription("Piano").setThumbnails(thumbnails))
+            .setContentDetails(new VideoContentDetails().setDuration("PT5M"));
+    }
+}
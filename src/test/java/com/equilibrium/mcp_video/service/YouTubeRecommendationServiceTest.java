@@ -0,0 +1,250 @@
+package com.equilibrium.mcp_video.service;
+
+import com.equilibrium.mcp_video.client.PlaylistPage;
+import com.equilibrium.mcp_video.client.YouTubeClient;
+import com.equilibrium.mcp_video.dto.UserState;
+import com.equilibrium.mcp_video.dto.VideoRecommendationRequest;
+import com.equilibrium.mcp_video.dto.VideoRecommendationResponse;
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.google.api.services.youtube.model.Video;
+import com.google.api.services.youtube.model.VideoContentDetails;
+import com.google.api.services.youtube.model.VideoSnippet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class YouTubeRecommendationServiceTest {
+
+    private static final int CACHE_ENTRIES = 8;
+    private static final int WARM_UP_REQUESTS = 5;
+
+    private final CountingClient client = new CountingClient();
+    private SearchResultCache searchResultCache;
+    private RecommendationRuleEngine engine;
+    private YouTubeRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        VideoConverter converter = TestVideos.converter();
+        SemanticScorer scorer = new SemanticScorer();
+
+        SeenVideoFilter seen = new SeenVideoFilter();
+        ReflectionTestUtils.setField(seen, "enabled", false);
+
+        VideoCatalog catalog = new VideoCatalog(converter, scorer);
+        ReflectionTestUtils.setField(catalog, "maxSize", 100);
+
+        searchResultCache = new SearchResultCache(converter);
+        ReflectionTestUtils.setField(searchResultCache, "ttl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(searchResultCache, "maxEntries", CACHE_ENTRIES);
+
+        QueryYieldTracker yieldTracker = new QueryYieldTracker();
+        ReflectionTestUtils.setField(yieldTracker, "priorYield", 0.5);
+        ReflectionTestUtils.setField(yieldTracker, "smoothing", 0.0); // Rendimento fixo depois da 1ª observação
+        ReflectionTestUtils.setField(yieldTracker, "safetyFactor", 1.25);
+        ReflectionTestUtils.setField(yieldTracker, "minPageSize", 3);
+        ReflectionTestUtils.setField(yieldTracker, "minYield", 0.05);
+
+        engine = TestVideos.ruleEngine();
+
+        CandidateSetStore candidateSets = new CandidateSetStore(converter);
+        ReflectionTestUtils.setField(candidateSets, "ttl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(candidateSets, "maxSets", 100);
+
+        QueryPlanner planner = new QueryPlanner(searchResultCache, yieldTracker, engine);
+        ReflectionTestUtils.setField(planner, "maxQueries", 5);
+        ReflectionTestUtils.setField(planner, "liveCost", 101.0);
+        ReflectionTestUtils.setField(planner, "cachedCost", 1.0);
+        ReflectionTestUtils.setField(planner, "categoryWeight", 1.0);
+
+        EngagementCounters engagement = new EngagementCounters();
+        ReflectionTestUtils.setField(engagement, "enabled", false);
+
+        service = new YouTubeRecommendationService(client, seen, scorer, converter, catalog, searchResultCache,
+            yieldTracker, engine, candidateSets, planner, engagement);
+        ReflectionTestUtils.setField(service, "seenPenalty", 30);
+        ReflectionTestUtils.setField(service, "semanticWeight", 40);
+        ReflectionTestUtils.setField(service, "popularityWeight", 15);
+        ReflectionTestUtils.setField(service, "minSearchQueries", 1);
+        ReflectionTestUtils.setField(service, "catalogCandidateLimit", 200);
+    }
+
+    @Test
+    void cachedLaneAnswersWithoutCallingTheApi() {
+        VideoRecommendationRequest request = request();
+        assertFalse(service.isAnswerableFromCache(request));
+        warm(request);
+        int liveCalls = client.searches;
+        assertTrue(liveCalls > 0);
+
+        assertTrue(service.isAnswerableFromCache(request));
+        VideoRecommendationResponse cached = service.recommendCached(request);
+
+        assertNotNull(cached);
+        assertNull(cached.getDegraded());
+        assertNotNull(cached.getContinuationToken());
+        assertTrue(cached.getRecommendations().stream().anyMatch(rec -> !rec.getVideos().isEmpty()));
+        assertEquals(liveCalls, client.searches);
+    }
+
+    @Test
+    void cachedLaneGivesUpWhenAnEntryLeftTheCache() {
+        VideoRecommendationRequest request = request();
+        warm(request);
+        assertTrue(service.isAnswerableFromCache(request));
+        int liveCalls = client.searches;
+
+        // Entre a checagem e a execução, outras buscas expulsam as entradas do request (LRU)
+        for (int i = 0; i < CACHE_ENTRIES; i++) {
+            searchResultCache.put("outra query " + i, "medium", "pt", 5, List.of());
+        }
+
+        assertNull(service.recommendCached(request));
+        assertEquals(liveCalls, client.searches);
+        assertEquals(Boolean.TRUE, service.recommendFromCache(request).getDegraded());
+        assertEquals(liveCalls, client.searches);
+    }
+
+    @Test
+    void liveResponseKeepsTheFullDescription() {
+        client.description = "Relaxar ao som da chuva. ".repeat(20); // 500 caracteres
+        VideoRecommendationRequest request = request();
+
+        VideoRecommendationResponse live = service.recommendVideos(request);
+
+        List<VideoRecommendationResponse.RecommendedVideo> videos = live.getRecommendations().stream()
+            .flatMap(rec -> rec.getVideos().stream())
+            .toList();
+        assertFalse(videos.isEmpty());
+        // Só o registro guardado no cache é truncado (280 caracteres)
+        assertTrue(videos.stream().allMatch(video -> video.getDescription().equals(client.description)));
+    }
+
+    /**
+     * Duas chamadas LIVE: a primeira aprende o rendimento das queries, a segunda
+     * grava no cache as páginas já dimensionadas por ele
+     */
+    @Test
+    void eachLanguageSearchesItsOwnPackAndCachePartition() {
+        for (String language : List.of("en", "es")) {
+            client.queries.clear();
+            client.languages.clear();
+            VideoRecommendationRequest request = request();
+            request.setLanguage(language);
+
+            service.recommendVideos(request);
+
+            assertFalse(client.queries.isEmpty());
+            List<String> packQueries = engine.allQueries(language);
+            List<String> defaultQueries = engine.allQueries("pt");
+            for (String query : client.queries) {
+                assertTrue(packQueries.contains(query), query);
+                assertFalse(defaultQueries.contains(query), query);
+                assertTrue(searchResultCache.contains(query, "medium", language, 1), query);
+                assertFalse(searchResultCache.contains(query, "medium", "pt", 1), query);
+            }
+            assertEquals(List.of(language), client.languages.stream().distinct().toList());
+        }
+    }
+
+    /**
+     * Repete o request até o plano estabilizar: enquanto aprende o rendimento das queries,
+     * o planejador troca irmãs do mesmo sinal e aumenta as páginas, e cada troca é uma busca nova
+     */
+    private void warm(VideoRecommendationRequest request) {
+        for (int i = 0; i < WARM_UP_REQUESTS && !service.isAnswerableFromCache(request); i++) {
+            service.recommendVideos(request);
+        }
+    }
+
+    private static VideoRecommendationRequest request() {
+        UserState state = new UserState();
+        state.setUserId("alice");
+        state.setAge(30);
+        state.setWeight(70.0);
+        state.setHeight(170.0);
+        state.setGender("other");
+        state.setActivityLevel("moderate");
+        state.setHealthGoal("wellness");
+        state.setCurrentMood("ok");
+        state.setMoodTrend("stable");
+        state.setStressLevel(8);
+        state.setAnxietyLevel(5);
+        state.setEnergyLevel(5);
+        state.setCurrentLevel(1);
+        state.setCurrentStreak(0);
+        state.setTotalXP(0L);
+        state.setMealsPerDay(3);
+        state.setPhysicalActivityMinutes(0);
+        state.setAverageSleepHours(7.0);
+        state.setSleepQuality("good");
+
+        VideoRecommendationRequest request = new VideoRecommendationRequest();
+        request.setUserState(state);
+        request.setCategory("nature");
+        request.setPreferredDuration("medium");
+        request.setLanguage("pt");
+        request.setMaxResults(10);
+        return request;
+    }
+
+    /**
+     * YouTube API falsa que conta as buscas
+     */
+    private static final class CountingClient implements YouTubeClient {
+
+        private int searches;
+        private String description = "Relaxar";
+        private final List<String> queries = new ArrayList<>();
+        private final List<String> languages = new ArrayList<>();
+
+        @Override
+        public boolean isConfigured() {
+            return true;
+        }
+
+        @Override
+        public List<String> searchVideoIds(String query, long maxResults, String videoDuration, String relevanceLanguage) {
+            searches++;
+            queries.add(query);
+            languages.add(relevanceLanguage);
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < maxResults; i++) {
+                ids.add(Integer.toHexString(query.hashCode()) + "-" + i);
+            }
+            return ids;
+        }
+
+        @Override
+        public List<Video> getVideos(List<String> videoIds) {
+            List<Video> videos = new ArrayList<>();
+            for (String id : videoIds) {
+                videos.add(new Video()
+                    .setId(id)
+                    .setSnippet(new VideoSnippet().setTitle("Sons da natureza " + id).setDescription(description))
+                    .setContentDetails(new VideoContentDetails().setDuration("PT10M")));
+            }
+            return videos;
+        }
+
+        @Override
+        public String getUploadsPlaylistId(String channelId) {
+            return null;
+        }
+
+        @Override
+        public PlaylistPage getPlaylistItems(String playlistId, String pageToken, String etag) {
+            return null;
+        }
+    }
+}
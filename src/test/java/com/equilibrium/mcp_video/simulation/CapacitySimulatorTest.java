@@ -0,0 +1,89 @@
+package com.equilibrium.mcp_video.simulation;
+
+import com.equilibrium.mcp_video.rules.RecommendationRuleEngine;
+import com.equilibrium.mcp_video.simulation.CapacitySimulator.Report;
+import com.equilibrium.mcp_video.simulation.CapacitySimulator.TracedRequest;
+import com.equilibrium.mcp_video.simulation.SimulatorProperties.Scenario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CapacitySimulatorTest {
+
+    private static final List<String> DURATIONS = List.of("short", "medium", "long");
+
+    private RecommendationRuleEngine engine;
+    private CapacitySimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RecommendationRuleEngine(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(engine, "location", "classpath:recommendation-rules.yml");
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "pt");
+        ReflectionTestUtils.setField(engine, "languages", List.of());
+        ReflectionTestUtils.invokeMethod(engine, "load");
+
+        simulator = new CapacitySimulator(null, null, engine, new SimulatorProperties(), null, null);
+    }
+
+    @Test
+    void prewarmRaisesTheHitRatioOfTheReplayedTrace() {
+        List<TracedRequest> trace = trace(300);
+
+        Report cold = simulator.simulate(scenario(false, DURATIONS), trace);
+        Report prewarmed = simulator.simulate(scenario(true, DURATIONS), trace);
+
+        assertTrue(prewarmed.hitRatio() > cold.hitRatio(),
+            "pré-aquecido " + prewarmed.hitRatio() + " vs frio " + cold.hitRatio());
+        // Todas as queries do trace vêm do pacote pré-aquecido e o TTL cobre o intervalo
+        assertEquals(1.0, prewarmed.hitRatio(), 1e-9);
+        assertEquals((long) engine.allQueries("pt").size() * DURATIONS.size() * 2, prewarmed.prewarmCalls());
+    }
+
+    @Test
+    void prewarmUnderAnotherDurationBucketIsNeverHit() {
+        List<TracedRequest> trace = trace(300);
+
+        Report cold = simulator.simulate(scenario(false, DURATIONS), trace);
+        Report wrongBucket = simulator.simulate(scenario(true, List.of("any")), trace);
+
+        assertEquals(cold.hitRatio(), wrongBucket.hitRatio(), 1e-9);
+    }
+
+    /**
+     * Um request por minuto (~5h de tráfego), 3 queries do pacote pt e uma faixa de duração sorteadas
+     */
+    private List<TracedRequest> trace(int requests) {
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>(engine.allQueries("pt"));
+        List<TracedRequest> trace = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            Collections.shuffle(queries, random);
+            trace.add(new TracedRequest(i * 60_000L, List.copyOf(queries.subList(0, 3)),
+                DURATIONS.get(random.nextInt(DURATIONS.size())), "pt"));
+        }
+        return trace;
+    }
+
+    private static Scenario scenario(boolean prewarm, List<String> prewarmDurations) {
+        Scenario scenario = new Scenario();
+        scenario.setName(prewarm ? "pre-aquecido" : "atual");
+        scenario.setCacheTtl(Duration.ofHours(6));
+        scenario.setCacheMaxEntries(2000);
+        scenario.setMaxQueries(5);
+        scenario.setPrewarm(prewarm);
+        scenario.setPrewarmInterval(Duration.ofHours(3));
+        scenario.setPrewarmDurations(prewarmDurations);
+        return scenario;
+    }
+}